@@ -0,0 +1,74 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.dto.response.MatchHistoryResponse;
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import com.lol.mastery_dashboard.util.MatchDtoDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Per-match work on the champion match history path: picking the player out of a decoded match
+and the totals over a full page of summaries.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-jmh.xml"})
+@State(Scope.Benchmark)
+public class MatchServiceBenchmark {
+
+    private static final String PUUID = "player-puuid";
+    private static final int CHAMPION_ID = 157;
+
+    private MatchService matchService;
+    private MatchDto match;
+    private List<MatchHistoryResponse.MatchSummary> summaries;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Neither method touches Riot, the store or the executor
+        matchService = new MatchService(null, null, null, new MatchFetchProperties(), null, null);
+
+        try (InputStream in = getClass().getResourceAsStream("/riot/match-v5.json")) {
+            match = MatchDtoDecoder.decode(in.readAllBytes());
+        }
+
+        summaries = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            summaries.add(matchService.extractPlayerMatch(match, PUUID, CHAMPION_ID));
+        }
+    }
+
+    @Benchmark
+    public MatchHistoryResponse.MatchSummary extractPlayerMatch() {
+        return matchService.extractPlayerMatch(match, PUUID, CHAMPION_ID);
+    }
+
+    @Benchmark
+    public void extractPlayerMatchOtherChampion(Blackhole blackhole) {
+        blackhole.consume(matchService.extractPlayerMatch(match, PUUID, CHAMPION_ID + 1));
+    }
+
+    @Benchmark
+    public MatchHistoryResponse.MatchStats calculateStats() {
+        return matchService.calculateStats(summaries);
+    }
+}
@@ -0,0 +1,80 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.entity.ChampionMastery;
+import com.lol.mastery_dashboard.entity.Summoner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+Building the summoner response for a player with every champion mastered
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-jmh.xml"})
+@State(Scope.Benchmark)
+public class SummonerServiceBenchmark {
+
+    @Param({"170"})
+    private int champions;
+
+    private SummonerService summonerService;
+    private Summoner summoner;
+    private List<ChampionMastery> masteries;
+
+    @Setup
+    public void setUp() {
+        // mapToResponse only reads the entities it is given
+        summonerService = new SummonerService(null, null, null, null, null, null, null, null, null, null);
+
+        summoner = new Summoner();
+        summoner.setPuuid("player-puuid");
+        summoner.setGameName("Faker");
+        summoner.setTagLine("KR1");
+        summoner.setRegion("KR");
+        summoner.setProfileIconId(4568);
+        summoner.setSummonerLevel(500L);
+        summoner.setLastUpdated(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        // Fixed seed so every run maps the same list
+        Random random = new Random(champions);
+        masteries = new ArrayList<>(champions);
+        for (int i = 0; i < champions; i++) {
+            int level = 1 + random.nextInt(10);
+            ChampionMastery mastery = new ChampionMastery();
+            mastery.setSummoner(summoner);
+            mastery.setChampionId(i + 1);
+            mastery.setChampionLevel(level);
+            mastery.setChampionPoints(level * 20_000L + random.nextInt(20_000));
+            mastery.setChampionPointsSinceLastLevel(random.nextInt(20_000));
+            mastery.setChampionPointsUntilNextLevel(random.nextInt(20_000));
+            mastery.setChestGranted(random.nextBoolean());
+            mastery.setTokensEarned(random.nextInt(3));
+            mastery.setLastPlayTime(1_700_000_000_000L + random.nextInt(1_000_000));
+            masteries.add(mastery);
+        }
+    }
+
+    @Benchmark
+    public SummonerResponse mapToResponse() {
+        return summonerService.mapToResponse(summoner, masteries);
+    }
+}
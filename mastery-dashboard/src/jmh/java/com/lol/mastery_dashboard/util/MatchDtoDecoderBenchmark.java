@@ -0,0 +1,56 @@
+package com.lol.mastery_dashboard.util;
+
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/*
+Decoding the match-v5 fixture, the streaming decoder against full Jackson databinding.
+Run with -prof gc to compare allocation as well.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-jmh.xml"})
+@State(Scope.Benchmark)
+public class MatchDtoDecoderBenchmark {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/riot/match-v5.json")) {
+            payload = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public MatchDto streaming() {
+        return MatchDtoDecoder.decode(payload);
+    }
+
+    @Benchmark
+    public MatchDto databind() {
+        return jsonMapper.readValue(payload, MatchDto.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.lol.mastery_dashboard.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Routing every platform, as sent by clients in mixed case, plus one unknown value
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dlogback.configurationFile=logback-jmh.xml"})
+@State(Scope.Benchmark)
+public class RegionMapperBenchmark {
+
+    private final List<String> regions = List.of(
+            "na1", "BR1", "la1", "LA2", "kr", "JP1", "euw1", "EUN1", "tr1", "RU", "oc1", "unknown");
+
+    @Benchmark
+    public void getRegionalRoute(Blackhole blackhole) {
+        for (String region : regions) {
+            blackhole.consume(RegionMapper.getRegionalRoute(region));
+        }
+    }
+}
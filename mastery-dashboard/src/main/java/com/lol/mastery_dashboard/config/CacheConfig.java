@@ -0,0 +1,41 @@
+package com.lol.mastery_dashboard.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class CacheConfig {
+
+    private final RiotCacheProperties riotCacheProperties;
+
+    /*
+    Bounded Caffeine caches with a TTL per data type.
+    Stats are recorded so hit/miss/eviction counts can be read per cache.
+     */
+
+    @Bean
+    public CacheManager cacheManager(){
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(riotCacheProperties.getDefaults()));
+
+        riotCacheProperties.getSpecs().forEach((name, spec) -> {
+            cacheManager.registerCustomCache(name, builder(spec).build());
+            log.info("Cache '{}': max {} entries, TTL {}", name, spec.getMaximumSize(), spec.getTtl());
+        });
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(RiotCacheProperties.Spec spec){
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats();
+    }
+}
@@ -0,0 +1,74 @@
+package com.lol.mastery_dashboard.config;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@RequiredArgsConstructor
+public class ExecutorConfig {
+
+    // Captures whatever the global ContextRegistry knows about, the current observation included
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final MatchFetchProperties matchFetchProperties;
+    private final SummonerRefreshProperties summonerRefreshProperties;
+
+    /*
+    Executor for match detail fan-out.
+    Per request parallelism is bounded in MatchService. With virtual threads the Riot rate limiter is what
+    caps it across requests, otherwise the fixed pool does.
+    Tasks carry the submitting request's observation, so their Riot calls are traced and counted under it.
+     */
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService matchFetchExecutor(){
+        ExecutorService executor = matchFetchProperties.isVirtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("match-fetch-", 0).factory())
+                : Executors.newFixedThreadPool(matchFetchProperties.getExecutorThreads(), namedThreads("match-fetch-"));
+        return ContextExecutorService.wrap(executor, CONTEXT_SNAPSHOTS);
+    }
+
+    /*
+    Runs streamed match history requests after the servlet thread has handed the response off.
+    Kept apart from the fan-out executor so a stream never waits on a slot in its own pool.
+     */
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService matchStreamExecutor(){
+        return ContextExecutorService.wrap(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("match-stream-", 0).factory()),
+                CONTEXT_SNAPSHOTS);
+    }
+
+    /*
+    Background refreshes for stale summoners, bounded so a burst can't pile up unbounded work
+     */
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService summonerRefreshExecutor(){
+        int threads = summonerRefreshProperties.getRefreshThreads();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(summonerRefreshProperties.getRefreshQueueCapacity()),
+                namedThreads("summoner-refresh-"));
+    }
+
+    private static ThreadFactory namedThreads(String prefix){
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
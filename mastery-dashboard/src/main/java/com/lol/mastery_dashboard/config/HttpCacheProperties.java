@@ -0,0 +1,31 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.http-cache")
+@Data
+public class HttpCacheProperties {
+    // Summoner lookups, stale responses always get max-age=0 so the next read picks up the refresh
+    private Policy summoner = new Policy(Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+    // Champion match history, new games only show up once the matchIds cache expires
+    private Policy matches = new Policy(Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        // How long browsers and shared caches may reuse a response without asking again
+        private Duration maxAge;
+
+        // How much longer a cached response may be served while it is revalidated in the background
+        private Duration staleWhileRevalidate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.match")
+@Data
+public class MatchFetchProperties {
+    // Max match detail calls in flight for a single match history request
+    private int parallelism = 6;
+
+    // Run match detail fetches on virtual threads, the blocking Riot calls then don't hold platform threads
+    private boolean virtualThreads = true;
+
+    // Size of the shared platform thread pool when virtual threads are off
+    private int executorThreads = 32;
+
+    // How long to wait for a single match detail call before giving up on it
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    // Longest a streamed match history response may stay open
+    private Duration streamTimeout = Duration.ofSeconds(60);
+
+    // Keep a local match ID list per player and only ask Riot for games newer than the last sync
+    private boolean incrementalSync = true;
+
+    // Don't ask Riot for new IDs more often than this per player
+    private Duration syncInterval = Duration.ofSeconds(60);
+
+    // Re-request this far behind the last sync, a game that was running then may have ended since
+    private Duration syncOverlap = Duration.ofHours(1);
+
+    // Riot caps the match ID endpoint at 100 per call
+    private int syncPageSize = 100;
+}
@@ -0,0 +1,51 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.prewarm")
+@Data
+public class PrewarmProperties {
+    private boolean enabled = true;
+
+    // How often the scheduler looks for summoners to refresh
+    private Duration interval = Duration.ofSeconds(30);
+
+    // Most looked up summoners kept warm, on top of the roster
+    private int topN = 50;
+
+    // Refresh this long before stored data would stop being fresh
+    private Duration refreshAhead = Duration.ofMinutes(1);
+
+    // Background work only runs while every app rate window of a routing value is below this share
+    private double rateBudgetShare = 0.2;
+
+    // Also store new matches for warmed summoners so match history pages are warm too
+    private boolean ingestMatches = true;
+    private int ingestMatchCount = 20;
+
+    // Riot IDs that came back not found are left alone this long before pre-warming tries them again
+    private Duration notFoundBackoff = Duration.ofHours(1);
+
+    // Lookup counts are halved this often, a Riot ID looked up once stays a candidate until the next halving
+    private Duration popularityHalfLife = Duration.ofMinutes(10);
+
+    // Lookups of summoners tracked at once, lookups of new names beyond this are not counted
+    private int maxTracked = 10_000;
+
+    // Always kept warm, regardless of how often they are looked up
+    private List<RosterEntry> roster = new ArrayList<>();
+
+    @Data
+    public static class RosterEntry {
+        private String gameName;
+        private String tagLine;
+        private String region;
+    }
+}
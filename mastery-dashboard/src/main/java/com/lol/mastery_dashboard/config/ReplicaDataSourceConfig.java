@@ -0,0 +1,86 @@
+package com.lol.mastery_dashboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+Primary and replica pools behind one routing data source, only with riot.replica.enabled.
+Read-only transactions run on the replica while ReplicaLagMonitor considers it caught up, everything else,
+schema.sql and Hibernate's startup checks included, runs on the primary.
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "riot.replica", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaDataSourceConfig {
+
+    private final ReplicaProperties replicaProperties;
+
+    // spring.datasource and spring.datasource.hikari, as Boot would have configured it
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties){
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties){
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(replicaProperties.getUrl());
+        dataSource.setUsername(replicaProperties.getUsername() != null
+                ? replicaProperties.getUsername() : properties.determineUsername());
+        dataSource.setPassword(replicaProperties.getPassword() != null
+                ? replicaProperties.getPassword() : properties.determinePassword());
+        dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               MeterRegistry meterRegistry){
+        return new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource), replicaProperties, meterRegistry);
+    }
+
+    /*
+    The lazy proxy only asks for a pooled connection at the first statement, by then the transaction's
+    read-only flag is set and the routing can go by it
+     */
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor){
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                        && replicaLagMonitor.isReplicaUsable() ? "replica" : "primary";
+            }
+        };
+        routing.setTargetDataSources(Map.of("primary", primaryDataSource, "replica", replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,69 @@
+package com.lol.mastery_dashboard.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/*
+Polls how far the replica is behind the primary and decides whether read-only transactions may use it.
+Until the first successful check, and whenever a check fails or the replica isn't streaming from the primary,
+reads stay on the primary.
+ */
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /*
+    Zero when the replica has replayed everything it received, an idle primary would otherwise look like growing lag.
+    That only holds while the WAL receiver is streaming, a disconnected standby has replayed all it got and stops
+    there, so without one the lag is unknown (NULL)
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END
+            """;
+
+    private final JdbcTemplate replica;
+    private final ReplicaProperties replicaProperties;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.replicaProperties = replicaProperties;
+        Gauge.builder("riot.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replay lag of the read replica, NaN while it can't be reached or isn't streaming")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${riot.replica.lag-check-interval:5s}")
+    public void check() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : Double.NaN;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            log.warn("Replica lag check failed: {}", e.getMessage());
+        }
+
+        boolean nowUsable = !Double.isNaN(lagSeconds) && lagSeconds * 1000 <= replicaProperties.getMaxLag().toMillis();
+        if (nowUsable != usable) {
+            log.info(nowUsable ? "Replica caught up ({}s behind), reads go to the replica"
+                    : "Replica unavailable or {}s behind, reads go to the primary", lagSeconds);
+        }
+        usable = nowUsable;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,28 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.replica")
+@Data
+public class ReplicaProperties {
+    // Off by default, everything then runs on spring.datasource
+    private boolean enabled = false;
+
+    // Streaming replica of spring.datasource, username and password default to the primary's
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    // Read-only transactions go back to the primary while the replica is further behind than this, or unreachable
+    private Duration maxLag = Duration.ofSeconds(1);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    // After a summoner is written its reads stay on the primary this long, so a refresh is never followed by an older copy
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+}
@@ -5,6 +5,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.URI;
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "riot.api")
 @Data
@@ -12,4 +15,40 @@ public class RiotApiProperties {
     private String key;
     private String accountUrl;
     private String summonerUrl;
+    private Connection connection = new Connection();
+    private RateLimit rateLimit = new RateLimit();
+
+    // Routing value Account-V1 is served from (and rate limited under), e.g. americas
+    public String accountRouting() {
+        return URI.create(accountUrl).getHost().split("\\.")[0];
+    }
+
+    /*
+    Settings for the connection pool shared by every Riot WebClient
+     */
+
+    @Data
+    public static class Connection {
+        private int maxConnections = 50; // per host
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration responseTimeout = Duration.ofSeconds(10);
+        private boolean http2 = true;
+    }
+
+    /*
+    Client side throttling, method limits are learned from Riot's response headers
+     */
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private String appLimits = "20:1,100:120"; // development key defaults until Riot reports ours
+        private int maxRetries = 3;
+        private Duration defaultRetryAfter = Duration.ofSeconds(1);
+    }
 }
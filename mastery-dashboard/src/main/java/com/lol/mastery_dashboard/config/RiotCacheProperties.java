@@ -0,0 +1,26 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.cache")
+@Data
+public class RiotCacheProperties {
+    // Used for any cache that has no entry in specs
+    private Spec defaults = new Spec();
+
+    // Per cache size and TTL, keyed by cache name
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+        private long maximumSize = 1_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
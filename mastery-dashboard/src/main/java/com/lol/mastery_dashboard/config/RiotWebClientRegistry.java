@@ -0,0 +1,144 @@
+package com.lol.mastery_dashboard.config;
+
+import com.lol.mastery_dashboard.service.RiotApiMetrics;
+import com.lol.mastery_dashboard.service.RiotRateLimiter;
+import com.lol.mastery_dashboard.util.RegionMapper;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+Long-lived WebClients for every Riot host, built once at startup.
+All of them share one connection pool so keep-alive connections get reused across requests.
+ */
+
+@Component
+@Slf4j
+public class RiotWebClientRegistry implements DisposableBean {
+
+    private final RiotApiProperties riotApiProperties;
+    private final WebClient.Builder webClientBuilder;
+    private final RiotRateLimiter riotRateLimiter;
+    private final RiotApiMetrics riotApiMetrics;
+    private final ConnectionProvider connectionProvider;
+
+    private final WebClient accountClient;
+    // Fixed at startup, regions come from requests and must not add clients
+    private final Map<String, WebClient> routingClients;
+
+    public RiotWebClientRegistry(RiotApiProperties riotApiProperties,
+                                 WebClient.Builder webClientBuilder,
+                                 RiotRateLimiter riotRateLimiter,
+                                 RiotApiMetrics riotApiMetrics) {
+        this.riotApiProperties = riotApiProperties;
+        this.webClientBuilder = webClientBuilder;
+        this.riotRateLimiter = riotRateLimiter;
+        this.riotApiMetrics = riotApiMetrics;
+        this.connectionProvider = buildConnectionProvider(riotApiProperties.getConnection());
+
+        // Account-V1 counts against the app limit of the routing value it is served from
+        this.accountClient = buildClient(riotApiProperties.getAccountUrl(), riotApiProperties.accountRouting());
+        Map<String, WebClient> clients = new HashMap<>();
+        for (String routingValue : routingValues()) {
+            clients.put(routingValue, buildClient(riotApiProperties.getSummonerUrl().replace("{region}", routingValue), routingValue));
+        }
+        this.routingClients = Map.copyOf(clients);
+
+        log.info("Built {} Riot API clients", routingClients.size() + 1);
+    }
+
+    /*
+    Account-V1 client (Americas routing)
+     */
+
+    public WebClient account() {
+        return accountClient;
+    }
+
+    /*
+    Client for a platform host such as na1 or euw1 (Summoner-V4, Champion-Mastery-V4)
+     */
+
+    public WebClient platform(String platformRegion) {
+        return routing(requirePlatform(platformRegion));
+    }
+
+    /*
+    Client for the regional routing host serving a platform (Match-V5)
+     */
+
+    public WebClient regional(String platformRegion) {
+        // getRegionalRoute falls back to americas, an unknown platform must not
+        return routing(RegionMapper.getRegionalRoute(requirePlatform(platformRegion)));
+    }
+
+    private String requirePlatform(String platformRegion) {
+        if (!RegionMapper.PLATFORM_REGIONS.contains(platformRegion.toUpperCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Unknown region: " + platformRegion);
+        }
+        return platformRegion.toLowerCase(Locale.ROOT);
+    }
+
+    private WebClient routing(String routingValue) {
+        return routingClients.get(routingValue);
+    }
+
+    private static List<String> routingValues() {
+        return Stream.concat(RegionMapper.PLATFORM_REGIONS.stream(), RegionMapper.REGIONAL_ROUTES.stream())
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private WebClient buildClient(String baseUrl, String routingValue) {
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
+                .filter(riotRateLimiter.filter(routingValue))
+                .filter(riotApiMetrics.filter(routingValue))
+                .clientConnector(new ReactorClientHttpConnector(buildHttpClient(baseUrl)))
+                .build();
+    }
+
+    private HttpClient buildHttpClient(String baseUrl) {
+        RiotApiProperties.Connection connection = riotApiProperties.getConnection();
+
+        // HTTP/2 is negotiated over TLS, plain http hosts (local stubs) stay on HTTP/1.1
+        HttpProtocol[] protocols = connection.isHttp2() && baseUrl.startsWith("https")
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+
+        return HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connection.getConnectTimeout().toMillis())
+                .responseTimeout(connection.getResponseTimeout());
+    }
+
+    private static ConnectionProvider buildConnectionProvider(RiotApiProperties.Connection connection) {
+        return ConnectionProvider.builder("riot-api")
+                .maxConnections(connection.getMaxConnections())
+                .pendingAcquireMaxCount(connection.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(connection.getPendingAcquireTimeout())
+                .maxIdleTime(connection.getMaxIdleTime())
+                .maxLifeTime(connection.getMaxLifeTime())
+                .evictInBackground(connection.getEvictionInterval())
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block();
+    }
+}
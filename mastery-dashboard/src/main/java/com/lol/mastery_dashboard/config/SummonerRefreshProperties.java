@@ -0,0 +1,25 @@
+package com.lol.mastery_dashboard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "riot.summoner")
+@Data
+public class SummonerRefreshProperties {
+    // Stored data younger than this is served as is
+    private Duration freshFor = Duration.ofMinutes(5);
+
+    // Serve older data immediately, flagged as stale, and refresh it in the background
+    private boolean staleWhileRevalidate = true;
+
+    // Beyond this age the caller waits for a synchronous refresh instead
+    private Duration maxStaleness = Duration.ofHours(24);
+
+    // Background refresh pool, refreshes beyond the queue are dropped and retried on a later request
+    private int refreshThreads = 4;
+    private int refreshQueueCapacity = 500;
+}
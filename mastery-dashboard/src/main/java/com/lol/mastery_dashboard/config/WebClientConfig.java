@@ -1,5 +1,6 @@
 package com.lol.mastery_dashboard.config;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -7,8 +8,13 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    /*
+    Replaces Boot's builder, so the observation registry is set here for Riot calls to show up as
+    client spans under the request that made them
+     */
+
     @Bean
-    public WebClient.Builder webClientBuilder(){
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(ObservationRegistry observationRegistry){
+        return WebClient.builder().observationRegistry(observationRegistry);
     }
 }
@@ -1,16 +1,41 @@
 package com.lol.mastery_dashboard.controller;
 
+import com.lol.mastery_dashboard.config.HttpCacheProperties;
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.dto.request.BatchSummonerRequest;
+import com.lol.mastery_dashboard.dto.request.MasteryQuery;
+import com.lol.mastery_dashboard.dto.response.BatchSummonerResponse;
 import com.lol.mastery_dashboard.dto.response.SummonerResponse;
 import com.lol.mastery_dashboard.service.SummonerService;
 import com.lol.mastery_dashboard.dto.response.MatchHistoryResponse;
 import com.lol.mastery_dashboard.service.MatchService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
 
 @RestController
 @RequestMapping("/api/summoners")
@@ -20,18 +45,38 @@ public class SummonerController {
 
     private final SummonerService summonerService;
     private final MatchService matchService;
+    private final MatchFetchProperties matchFetchProperties;
+    private final HttpCacheProperties httpCacheProperties;
+    private final ExecutorService matchStreamExecutor;
+
+    // What the cached endpoints can be encoded as, in the order Accept: */* picks from
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.parseMediaType("application/x-jackson-smile"));
+
+    /*
+    sort, level, chestAvailable, page and limit (see MasteryQuery) narrow championMasteries down to
+    what the client renders, without them every champion is returned
+     */
 
     @GetMapping("/{gameName}/{tagLine}")
     public ResponseEntity<?> getSummoner(
             @PathVariable String gameName,
             @PathVariable String tagLine,
-            @RequestParam String region
+            @RequestParam String region,
+            @Valid @ModelAttribute MasteryQuery masteryQuery,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ){
         try{
             log.info("Request received: {}#{} ({})", gameName, tagLine, region);
-            SummonerResponse response = summonerService.findOrCreateSummoner(gameName, tagLine, region.toUpperCase());
+            SummonerResponse response = summonerService.findOrCreateSummoner(
+                    gameName, tagLine, region.toUpperCase(), masteryQuery);
 
-            return ResponseEntity.ok(response);
+            // A matching If-None-Match is answered with a 304 before the body is serialized
+            return ResponseEntity.ok()
+                    .eTag(summonerETag(response, negotiatedType(accept)))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(cacheControl(httpCacheProperties.getSummoner(), Boolean.TRUE.equals(response.getStale())))
+                    .body(response);
         }catch (RuntimeException e){
             log.error("Error fetching summoner: ", e);
 
@@ -45,13 +90,22 @@ public class SummonerController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> getSummoners(@Valid @RequestBody BatchSummonerRequest request){
+        log.info("Batch request received: {} Riot IDs ({})", request.getRiotIds().size(), request.getRegion());
+        BatchSummonerResponse response = summonerService.findOrCreateSummoners(
+                request.getRiotIds(), request.getRegion().toUpperCase());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{gameName}/{tagLine}/champion/{championId}/matches")
     public ResponseEntity<?> getChampionMatches(
             @PathVariable String gameName,
             @PathVariable String tagLine,
             @PathVariable int championId,
             @RequestParam String region,
-            @RequestParam(defaultValue = "10") int count) {
+            @RequestParam(defaultValue = "10") int count,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
         log.info("Request for match history: {}#{} - Champion: {} ({} matches)",
                 gameName, tagLine, championId, count);
@@ -68,7 +122,11 @@ public class SummonerController {
                     count
             );
 
-            return ResponseEntity.ok(matchHistory);
+            return ResponseEntity.ok()
+                    .eTag(matchHistoryETag(puuid, count, matchHistory, negotiatedType(accept)))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(cacheControl(httpCacheProperties.getMatches(), false))
+                    .body(matchHistory);
 
         } catch (Exception e) {
             log.error("Error fetching match history: ", e);
@@ -79,5 +137,129 @@ public class SummonerController {
         }
     }
 
+    /*
+    Server-Sent Events version of the match history endpoint.
+    Sends a "match" event per game as soon as it is resolved, then a "stats" event with the totals
+    (recentMatches left out), or an "error" event if the lookup fails.
+     */
+
+    @GetMapping(value = "/{gameName}/{tagLine}/champion/{championId}/matches/stream",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChampionMatches(
+            @PathVariable String gameName,
+            @PathVariable String tagLine,
+            @PathVariable int championId,
+            @RequestParam String region,
+            @RequestParam(defaultValue = "10") int count) {
+
+        log.info("Streaming match history: {}#{} - Champion: {} ({} matches)", gameName, tagLine, championId, count);
+        SseEmitter emitter = new SseEmitter(matchFetchProperties.getStreamTimeout().toMillis());
+
+        matchStreamExecutor.execute(() -> {
+            try {
+                String puuid = summonerService.getPuuidOnly(gameName, tagLine, region);
+                MatchHistoryResponse matchHistory = matchService.streamChampionMatchHistory(
+                        puuid, region, championId, count, summary -> send(emitter, "match", summary));
+
+                matchHistory.setRecentMatches(null);
+                send(emitter, "stats", matchHistory);
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // Client went away or the stream timed out, the match loop has already stopped
+                log.info("Match history stream closed: {}#{}", gameName, tagLine);
+            } catch (Exception e) {
+                log.error("Error streaming match history: ", e);
+                try {
+                    send(emitter, "error", new ErrorResponse("Failed to fetch match history"));
+                    emitter.complete();
+                } catch (RuntimeException ignored) {
+                    // Nobody left to tell
+                }
+            }
+        });
+        return emitter;
+    }
+
+    /*
+    Validators are weak: the same tag covers the gzip and identity bodies, and Tomcat doesn't compress a
+    response carrying a strong ETag. The negotiated media type is part of every tag, so a JSON and a CBOR
+    copy of the same data never validate each other.
+
+    A summoner's lastUpdated moves with every write of the summoner and its masteries, stale and
+    masteryChanges differ per response so they are folded in as well.
+     */
+
+    private static String summonerETag(SummonerResponse response, MediaType type) {
+        boolean changed = response.getMasteryChanges() != null && !response.getMasteryChanges().isEmpty();
+        return weakETag(type, response.getPuuid(), response.getLastUpdated(), response.getStale(), changed);
+    }
+
+    /*
+    Match history has no version of its own. Finished games never change, so the newest game of the page
+    and how many games the career totals cover identify the body. Nothing derived from the time zone
+    goes in, so every instance tags the same history the same way.
+     */
+
+    private static String matchHistoryETag(String puuid, int count, MatchHistoryResponse matchHistory, MediaType type) {
+        List<MatchHistoryResponse.MatchSummary> matches = matchHistory.getRecentMatches();
+        String newest = matches == null || matches.isEmpty() ? "" : matches.getFirst().getMatchId();
+        int careerGames = matchHistory.getCareerStats() != null ? matchHistory.getCareerStats().getTotalGames() : 0;
+        return weakETag(type, puuid, matchHistory.getChampionId(), count, newest, careerGames);
+    }
+
+    /*
+    The encoding the message converters will pick for this Accept header: the first one the highest
+    quality accepted type allows. Anything unparseable gets JSON, as does a wildcard Accept.
+     */
+
+    static MediaType negotiatedType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            List<MediaType> requested = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            requested.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType type : requested) {
+                for (MediaType encoding : ENCODINGS) {
+                    if (type.getQualityValue() > 0 && type.isCompatibleWith(encoding)) {
+                        return encoding;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException ignored) {
+            // Left to content negotiation to reject
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // First 128 bits of a SHA-256 over the parts, unlike a 32-bit hashCode two versions won't share a tag
+    private static String weakETag(Object... parts) {
+        String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("\u0000"));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Public so a CDN can serve repeat reads, stale summoners have to be revalidated straight away
+    private static CacheControl cacheControl(HttpCacheProperties.Policy policy, boolean stale) {
+        return CacheControl.maxAge(stale ? Duration.ZERO : policy.getMaxAge())
+                .cachePublic()
+                .staleWhileRevalidate(policy.getStaleWhileRevalidate());
+    }
+
+    // A timed out or completed emitter throws IllegalStateException, it means the same as a closed connection
+    private static void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalStateException e) {
+            throw new UncheckedIOException(new IOException("Match history stream already closed", e));
+        }
+    }
+
     record ErrorResponse(String message){}
 }
@@ -0,0 +1,23 @@
+package com.lol.mastery_dashboard.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSummonerRequest {
+    @NotBlank
+    private String region;
+
+    // "gameName#tagLine", a lobby is 10 players so 20 leaves room for a few subs and coaches
+    @NotEmpty
+    @Size(max = 20)
+    private List<@NotBlank String> riotIds;
+}
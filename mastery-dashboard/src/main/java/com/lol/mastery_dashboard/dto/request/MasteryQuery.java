@@ -0,0 +1,44 @@
+package com.lol.mastery_dashboard.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+Optional query parameters of the summoner endpoint, selecting which champion masteries come back.
+Leaving all of them out returns the whole list as before.
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MasteryQuery {
+    // "<key>-<direction>" with key points, level or lastPlayTime, e.g. points-desc (the default)
+    @Pattern(regexp = "(points|level|lastPlayTime)-(asc|desc)")
+    private String sort;
+
+    // Only champions at exactly this mastery level
+    @Min(0)
+    private Integer level;
+
+    // true for champions that can still drop a chest, false for those that already did
+    private Boolean chestAvailable;
+
+    // Zero-based, only used together with limit
+    @Min(0)
+    private Integer page;
+
+    // Page size, all matching champions when left out
+    @Min(1)
+    @Max(200)
+    private Integer limit;
+
+    public boolean isEmpty() {
+        return sort == null && level == null && chestAvailable == null && page == null && limit == null;
+    }
+}
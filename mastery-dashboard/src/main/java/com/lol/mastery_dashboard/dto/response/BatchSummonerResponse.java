@@ -0,0 +1,30 @@
+package com.lol.mastery_dashboard.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSummonerResponse {
+    private String region;
+
+    // Same order as the request, each item has either a summoner or an error
+    private List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String riotId;
+        private SummonerResponse summoner;
+        private String error;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lol.mastery_dashboard.dto.response;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MasteryChangeResponse {
+    private Integer championId;
+    private ChangeType changeType;
+    private Integer previousLevel;
+    private Integer currentLevel;
+    private Long pointsDelta;
+
+    public enum ChangeType {
+        NEW,
+        LEVEL_UP,
+        POINTS,
+        REMOVED
+    }
+}
@@ -13,6 +13,7 @@ public class MatchHistoryResponse {
     private int championId;
     private List<MatchSummary> recentMatches;
     private MatchStats overallStats;
+    private CareerStats careerStats; // every stored game on this champion, not just the recent ones
 
     @Data
     @Builder
@@ -45,4 +46,20 @@ public class MatchHistoryResponse {
         private double averageDeaths;
         private double averageAssists;
     }
+
+    @Data
+    @Builder
+    public static class CareerStats {
+        private int totalGames;
+        private int wins;
+        private int losses;
+        private double winRate;
+        private double averageKDA;
+        private double averageKills;
+        private double averageDeaths;
+        private double averageAssists;
+        private double averageCreepScore;
+        private double averageGold;
+        private double averageGameDuration; // in seconds
+    }
 }
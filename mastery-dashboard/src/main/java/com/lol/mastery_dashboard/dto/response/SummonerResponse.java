@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SummonerResponse {
@@ -21,8 +21,29 @@ public class SummonerResponse {
     private Integer profileIconId;
     private Long summonerLevel;
     private LocalDateTime lastUpdated;
+
+    // Served from stored data past its freshness window while a refresh runs in the background
+    private Boolean stale;
     private List<ChampionMasteryResponse> championMasteries;
 
     private Integer totalMasteryScore;
     private Integer chestsAvailable;
+
+    // Changes found by the last refresh, empty when served from the database or on a first lookup
+    private List<MasteryChangeResponse> masteryChanges;
+
+    // Set when championMasteries was sorted, filtered or paged on request, the totals above still cover every champion
+    private MasteryPage masteryPage;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MasteryPage {
+        private String sort;
+        private Integer page;
+        private Integer limit; // null when every matching champion was returned
+        private Long totalElements; // champions matching the filters
+        private Integer totalPages;
+    }
 }
@@ -2,12 +2,16 @@ package com.lol.mastery_dashboard.entity;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
 @Table(name = "champion_mastery")
-@Data
+@Getter
+@Setter
+@ToString(exclude = "summoner") // printing a mastery must not load its summoner
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChampionMastery {
@@ -0,0 +1,70 @@
+package com.lol.mastery_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/*
+Running totals of a player's stored games on one champion.
+Updated in the same transaction that stores a new match, so averages never need a re-scan.
+ */
+
+@Entity
+@Table(name = "champion_match_stats")
+@IdClass(ChampionMatchStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChampionMatchStats {
+
+    @Id
+    @Column(nullable = false)
+    private String puuid;
+
+    @Id
+    @Column(nullable = false)
+    private Integer championId;
+
+    private String championName;
+
+    @Column(nullable = false)
+    private Integer games;
+
+    @Column(nullable = false)
+    private Integer wins;
+
+    @Column(nullable = false)
+    private Long kills;
+
+    @Column(nullable = false)
+    private Long deaths;
+
+    @Column(nullable = false)
+    private Long assists;
+
+    @Column(nullable = false)
+    private Long creepScore;
+
+    @Column(nullable = false)
+    private Long goldEarned;
+
+    @Column(nullable = false)
+    private Long durationSeconds;
+
+    // Sum of per-game KDA, so the average matches the one computed over recent matches
+    @Column(nullable = false)
+    private Double kdaSum;
+
+    private Long lastGameCreation;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String puuid;
+        private Integer championId;
+    }
+}
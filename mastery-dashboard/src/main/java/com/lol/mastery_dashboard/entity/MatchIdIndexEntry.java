@@ -0,0 +1,67 @@
+package com.lol.mastery_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/*
+One match ID in a player's locally kept match list
+ */
+
+@Entity
+@Table(name = "match_id_index")
+@IdClass(MatchIdIndexEntry.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchIdIndexEntry implements Persistable<MatchIdIndexEntry.Key> {
+
+    @Id
+    @Column(nullable = false)
+    private String puuid;
+
+    @Id
+    @Column(nullable = false)
+    private String matchId;
+
+    // Numeric part of the match ID, grows with game creation so it orders newest first
+    @Column(nullable = false)
+    private Long matchNumber;
+
+    @Transient
+    private boolean newRecord = true;
+
+    public MatchIdIndexEntry(String puuid, String matchId, Long matchNumber) {
+        this.puuid = puuid;
+        this.matchId = matchId;
+        this.matchNumber = matchNumber;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(puuid, matchId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        this.newRecord = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String puuid;
+        private String matchId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.lol.mastery_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+Cursor for incremental match ID sync of one player.
+New games are fetched with startTime = syncedThrough, older ones are paged with endTime = anchorTime.
+ */
+
+@Entity
+@Table(name = "match_id_sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchIdSyncState {
+
+    @Id
+    @Column(nullable = false)
+    private String puuid;
+
+    @Column(nullable = false)
+    private String region;
+
+    // Epoch seconds, everything that started before this has been asked for
+    @Column(nullable = false)
+    private Long syncedThrough;
+
+    // Epoch seconds, fixed at the first sync so paging backwards stays deterministic
+    @Column(nullable = false)
+    private Long anchorTime;
+
+    // How many IDs older than anchorTime have been fetched so far
+    @Column(nullable = false)
+    private Integer backfillOffset;
+
+    @Column(nullable = false)
+    private Boolean historyExhausted;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSynced;
+}
@@ -0,0 +1,73 @@
+package com.lol.mastery_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/*
+Per-player stats of a stored match, enough to filter and summarise games by champion
+ */
+
+@Entity
+@Table(name = "match_participants")
+@IdClass(MatchParticipant.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchParticipant implements Persistable<MatchParticipant.Key> {
+
+    @Id
+    @Column(nullable = false)
+    private String matchId;
+
+    @Id
+    @Column(nullable = false)
+    private String puuid;
+
+    @Column(nullable = false)
+    private Integer championId;
+
+    private String championName;
+    private Integer kills;
+    private Integer deaths;
+    private Integer assists;
+    private Boolean win;
+    private Integer champLevel;
+    private Integer totalMinionsKilled;
+    private Integer neutralMinionsKilled;
+    private Integer goldEarned;
+    private String lane;
+    private String role;
+    private String teamPosition;
+
+    @Transient
+    private boolean newRecord = true;
+
+    @Override
+    public Key getId() {
+        return new Key(matchId, puuid);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        this.newRecord = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String matchId;
+        private String puuid;
+    }
+}
@@ -0,0 +1,57 @@
+package com.lol.mastery_dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/*
+A finished game as stored locally, match details never change once the game is over
+ */
+
+@Entity
+@Table(name = "matches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchRecord implements Persistable<String> {
+
+    @Id
+    @Column(nullable = false)
+    private String matchId;
+
+    @Column(nullable = false)
+    private Long gameCreation;
+
+    @Column(nullable = false)
+    private Long gameDuration;
+
+    private String gameMode;
+    private Integer queueId;
+
+    @Column(nullable = false)
+    private LocalDateTime storedAt;
+
+    // Match IDs are assigned by Riot, without this save() would SELECT before every INSERT
+    @Transient
+    private boolean newRecord = true;
+
+    @Override
+    public String getId() {
+        return matchId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markStored() {
+        this.newRecord = false;
+    }
+}
@@ -1,17 +1,21 @@
 package com.lol.mastery_dashboard.entity;
 
+import com.lol.mastery_dashboard.util.RiotIdNormalizer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Table(name="summoners")
-@Data //Lombok Package: Generates getters, setters, toString, equals and hasCode methods
+// Identity equals/hashCode, field-based ones break once Hibernate changes a managed instance
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Summoner {
@@ -29,18 +33,19 @@ public class Summoner {
     @Column(nullable = false)
     private String region;
 
+    // Lower-cased "gameName#tagLine", indexed together with region for case-insensitive lookups
+    private String riotIdKey;
+
     private Integer profileIconId;
     private Long summonerLevel;
 
     @Column(nullable = false)
     private LocalDateTime lastUpdated;
 
-    @OneToMany(mappedBy = "summoner", cascade = CascadeType.ALL)
-    private List<ChampionMastery> championMasteries = new ArrayList<>();
-
     @PrePersist
     @PreUpdate
     protected void onUpdate(){
         this.lastUpdated = LocalDateTime.now();
+        this.riotIdKey = RiotIdNormalizer.key(gameName, tagLine);
     }
 }
@@ -2,14 +2,52 @@ package com.lol.mastery_dashboard.repository;
 
 
 import com.lol.mastery_dashboard.entity.ChampionMastery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ChampionMasteryRepository extends JpaRepository<ChampionMastery, Long> {
+public interface ChampionMasteryRepository extends JpaRepository<ChampionMastery, Long>, ChampionMasteryRepositoryCustom {
 
     List<ChampionMastery> findBySummonerPuuid(String puuid);
-    void deleteBySummonerPuuid(String puuid);
+    List<ChampionMastery> findBySummonerPuuidIn(Collection<String> puuids);
+
+    /*
+    One sorted page of a player's masteries, filters left null match everything.
+    The sort keys are covered by the (puuid, ...) indexes in schema.sql.
+     */
+
+    @Query("""
+            select m from ChampionMastery m
+            where m.summoner.puuid = :puuid
+              and (:level is null or m.championLevel = :level)
+              and (:chestAvailable is null or m.chestGranted <> :chestAvailable)
+            """)
+    Page<ChampionMastery> findPage(@Param("puuid") String puuid,
+                                   @Param("level") Integer level,
+                                   @Param("chestAvailable") Boolean chestAvailable,
+                                   Pageable pageable);
+
+    /*
+    Totals over every mastery of a player, whatever page or filter was asked for
+     */
+
+    @Query("""
+            select coalesce(sum(m.championLevel), 0) as totalMasteryScore,
+                   count(case when m.chestGranted = false then 1 end) as chestsAvailable
+            from ChampionMastery m
+            where m.summoner.puuid = :puuid
+            """)
+    MasteryTotals sumTotals(@Param("puuid") String puuid);
+
+    interface MasteryTotals {
+        long getTotalMasteryScore();
+        long getChestsAvailable();
+    }
 }
@@ -0,0 +1,23 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.ChampionMastery;
+
+import java.util.Collection;
+import java.util.List;
+
+/*
+Set-based writes for champion masteries, implemented with JDBC batches
+ */
+
+public interface ChampionMasteryRepositoryCustom {
+
+    /*
+    Insert new champions and update changed ones, rows that are identical are left untouched
+     */
+    void upsertAll(String puuid, List<ChampionMastery> masteries);
+
+    /*
+    Remove champions that are no longer in the player's mastery list
+     */
+    int deleteMissing(String puuid, Collection<Integer> championIds);
+}
@@ -0,0 +1,61 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.ChampionMastery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChampionMasteryRepositoryImpl implements ChampionMasteryRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO champion_mastery (puuid, champion_id, champion_level, champion_points,
+                                          champion_points_since_last_level, champion_points_until_next_level,
+                                          chest_granted, tokens_earned, last_play_time)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (puuid, champion_id) DO UPDATE SET
+                champion_level                   = EXCLUDED.champion_level,
+                champion_points                  = EXCLUDED.champion_points,
+                champion_points_since_last_level = EXCLUDED.champion_points_since_last_level,
+                champion_points_until_next_level = EXCLUDED.champion_points_until_next_level,
+                chest_granted                    = EXCLUDED.chest_granted,
+                tokens_earned                    = EXCLUDED.tokens_earned,
+                last_play_time                   = EXCLUDED.last_play_time
+            WHERE (champion_mastery.champion_level, champion_mastery.champion_points,
+                   champion_mastery.champion_points_since_last_level, champion_mastery.champion_points_until_next_level,
+                   champion_mastery.chest_granted, champion_mastery.tokens_earned, champion_mastery.last_play_time)
+                  IS DISTINCT FROM
+                  (EXCLUDED.champion_level, EXCLUDED.champion_points,
+                   EXCLUDED.champion_points_since_last_level, EXCLUDED.champion_points_until_next_level,
+                   EXCLUDED.chest_granted, EXCLUDED.tokens_earned, EXCLUDED.last_play_time)
+            """;
+
+    private static final int BATCH_SIZE = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(String puuid, List<ChampionMastery> masteries) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, masteries, BATCH_SIZE, (ps, mastery) -> {
+            ps.setString(1, puuid);
+            ps.setInt(2, mastery.getChampionId());
+            ps.setInt(3, mastery.getChampionLevel());
+            ps.setLong(4, mastery.getChampionPoints());
+            ps.setObject(5, mastery.getChampionPointsSinceLastLevel(), Types.INTEGER);
+            ps.setObject(6, mastery.getChampionPointsUntilNextLevel(), Types.INTEGER);
+            ps.setBoolean(7, mastery.getChestGranted());
+            ps.setObject(8, mastery.getTokensEarned(), Types.INTEGER);
+            ps.setObject(9, mastery.getLastPlayTime(), Types.BIGINT);
+        });
+    }
+
+    @Override
+    public int deleteMissing(String puuid, Collection<Integer> championIds) {
+        return jdbcTemplate.update(
+                "DELETE FROM champion_mastery WHERE puuid = ? AND champion_id <> ALL (?)",
+                puuid, championIds.toArray(new Integer[0]));
+    }
+}
@@ -0,0 +1,48 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.ChampionMatchStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChampionMatchStatsRepository extends JpaRepository<ChampionMatchStats, ChampionMatchStats.Key> {
+
+    /*
+    Add one game to a player's champion totals, creating the row on their first game
+     */
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO champion_match_stats (puuid, champion_id, champion_name, games, wins, kills, deaths, assists,
+                                              creep_score, gold_earned, duration_seconds, kda_sum, last_game_creation)
+            VALUES (:puuid, :championId, :championName, 1, :wins, :kills, :deaths, :assists,
+                    :creepScore, :goldEarned, :durationSeconds, :kda, :gameCreation)
+            ON CONFLICT (puuid, champion_id) DO UPDATE SET
+                champion_name      = COALESCE(EXCLUDED.champion_name, champion_match_stats.champion_name),
+                games              = champion_match_stats.games + 1,
+                wins               = champion_match_stats.wins + EXCLUDED.wins,
+                kills              = champion_match_stats.kills + EXCLUDED.kills,
+                deaths             = champion_match_stats.deaths + EXCLUDED.deaths,
+                assists            = champion_match_stats.assists + EXCLUDED.assists,
+                creep_score        = champion_match_stats.creep_score + EXCLUDED.creep_score,
+                gold_earned        = champion_match_stats.gold_earned + EXCLUDED.gold_earned,
+                duration_seconds   = champion_match_stats.duration_seconds + EXCLUDED.duration_seconds,
+                kda_sum            = champion_match_stats.kda_sum + EXCLUDED.kda_sum,
+                last_game_creation = GREATEST(champion_match_stats.last_game_creation, EXCLUDED.last_game_creation)
+            """, nativeQuery = true)
+    void addGame(@Param("puuid") String puuid,
+                 @Param("championId") int championId,
+                 @Param("championName") String championName,
+                 @Param("wins") int wins,
+                 @Param("kills") long kills,
+                 @Param("deaths") long deaths,
+                 @Param("assists") long assists,
+                 @Param("creepScore") long creepScore,
+                 @Param("goldEarned") long goldEarned,
+                 @Param("durationSeconds") long durationSeconds,
+                 @Param("kda") double kda,
+                 @Param("gameCreation") long gameCreation);
+}
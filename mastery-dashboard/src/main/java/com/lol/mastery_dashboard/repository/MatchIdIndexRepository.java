@@ -0,0 +1,23 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.MatchIdIndexEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MatchIdIndexRepository extends JpaRepository<MatchIdIndexEntry, MatchIdIndexEntry.Key> {
+
+    long countByPuuid(String puuid);
+
+    @Query("select e.matchId from MatchIdIndexEntry e where e.puuid = :puuid order by e.matchNumber desc")
+    List<String> findMatchIds(@Param("puuid") String puuid, Pageable pageable);
+
+    @Query("select e.matchId from MatchIdIndexEntry e where e.puuid = :puuid and e.matchId in :matchIds")
+    List<String> findKnownMatchIds(@Param("puuid") String puuid, @Param("matchIds") Collection<String> matchIds);
+}
@@ -0,0 +1,9 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.MatchIdSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchIdSyncStateRepository extends JpaRepository<MatchIdSyncState, String> {
+}
@@ -0,0 +1,26 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.MatchParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MatchParticipantRepository extends JpaRepository<MatchParticipant, MatchParticipant.Key> {
+
+    /*
+    A player's stats together with the match they belong to, in one round trip
+     */
+
+    @Query("""
+            select p, m from MatchParticipant p, MatchRecord m
+            where m.matchId = p.matchId
+              and p.puuid = :puuid
+              and p.matchId in :matchIds
+            """)
+    List<Object[]> findPlayerMatches(@Param("puuid") String puuid, @Param("matchIds") Collection<String> matchIds);
+}
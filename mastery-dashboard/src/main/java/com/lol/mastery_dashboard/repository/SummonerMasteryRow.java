@@ -0,0 +1,27 @@
+package com.lol.mastery_dashboard.repository;
+
+import java.time.LocalDateTime;
+
+/*
+One row of a stored summoner joined with one of its masteries, read straight into a DTO.
+The mastery fields are null for a summoner without any masteries.
+ */
+
+public record SummonerMasteryRow(
+        String puuid,
+        String gameName,
+        String tagLine,
+        String region,
+        Integer profileIconId,
+        Long summonerLevel,
+        LocalDateTime lastUpdated,
+        Integer championId,
+        Integer championLevel,
+        Long championPoints,
+        Integer championPointsSinceLastLevel,
+        Integer championPointsUntilNextLevel,
+        Boolean chestGranted,
+        Integer tokensEarned,
+        Long lastPlayTime
+) {
+}
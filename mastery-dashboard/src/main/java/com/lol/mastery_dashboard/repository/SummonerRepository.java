@@ -3,16 +3,43 @@ package com.lol.mastery_dashboard.repository;
 
 import com.lol.mastery_dashboard.entity.Summoner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SummonerRepository extends JpaRepository<Summoner, String> {
 
-    Optional<Summoner> findByGameNameAndTagLineAndRegion(
-            String gameName,
-            String tagLine,
-            String region
-    );
+    // Most recently updated first, a Riot ID can pass to another account after a name change
+    Optional<Summoner> findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc(String riotIdKey, String region);
+
+    // PUUIDs are global, any region's row resolves the Riot ID
+    Optional<Summoner> findFirstByRiotIdKeyOrderByLastUpdatedDesc(String riotIdKey);
+
+    // Batch lookups, one query for the whole team
+    List<Summoner> findByRiotIdKeyInAndRegion(Collection<String> riotIdKeys, String region);
+
+    /*
+    The most recently updated summoner for a Riot ID together with its masteries, in one statement.
+    Rows are DTOs rather than entities, so nothing is added to the persistence context or dirty checked.
+     */
+
+    @Query("""
+            select new com.lol.mastery_dashboard.repository.SummonerMasteryRow(
+                s.puuid, s.gameName, s.tagLine, s.region, s.profileIconId, s.summonerLevel, s.lastUpdated,
+                m.championId, m.championLevel, m.championPoints, m.championPointsSinceLastLevel,
+                m.championPointsUntilNextLevel, m.chestGranted, m.tokensEarned, m.lastPlayTime)
+            from Summoner s
+            left join ChampionMastery m on m.summoner = s
+            where s.riotIdKey = :riotIdKey
+              and s.region = :region
+              and s.lastUpdated = (select max(latest.lastUpdated) from Summoner latest
+                                   where latest.riotIdKey = :riotIdKey and latest.region = :region)
+            order by m.championPoints desc, m.championId desc
+            """)
+    List<SummonerMasteryRow> findLatestWithMasteries(@Param("riotIdKey") String riotIdKey, @Param("region") String region);
 }
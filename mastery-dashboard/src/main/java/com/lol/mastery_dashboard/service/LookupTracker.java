@@ -0,0 +1,65 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.PrewarmProperties;
+import com.lol.mastery_dashboard.util.RegionMapper;
+import com.lol.mastery_dashboard.util.RiotIdNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Counts summoner lookups so the pre-warm scheduler knows who is popular.
+Only lookups in a known platform region count, anything else would just fail to refresh.
+Counts are halved on every decay, once per riot.prewarm.popularity-half-life, so the ranking follows recent
+traffic rather than all time totals.
+ */
+
+@Component
+@RequiredArgsConstructor
+public class LookupTracker {
+
+    private final PrewarmProperties prewarmProperties;
+
+    // Keyed by normalized Riot ID and region, remembering the spelling of the first lookup
+    private final Map<String, Counter> lookups = new ConcurrentHashMap<>();
+
+    public void record(String gameName, String tagLine, String region) {
+        String normalizedRegion = region.toUpperCase(Locale.ROOT);
+        if (!RegionMapper.PLATFORM_REGIONS.contains(normalizedRegion)) {
+            return;
+        }
+        String key = RiotIdNormalizer.key(gameName, tagLine) + "@" + normalizedRegion;
+        Counter counter = lookups.get(key);
+        if (counter == null) {
+            if (lookups.size() >= prewarmProperties.getMaxTracked()) {
+                return;
+            }
+            counter = lookups.computeIfAbsent(key,
+                    k -> new Counter(new TrackedSummoner(gameName, tagLine, normalizedRegion), new AtomicLong()));
+        }
+        counter.count().incrementAndGet();
+    }
+
+    public List<TrackedSummoner> top(int limit) {
+        return lookups.values().stream()
+                .sorted(Comparator.comparingLong((Counter counter) -> counter.count().get()).reversed())
+                .limit(limit)
+                .map(Counter::summoner)
+                .toList();
+    }
+
+    public void decay() {
+        lookups.values().forEach(counter -> counter.count().updateAndGet(value -> value / 2));
+        lookups.values().removeIf(counter -> counter.count().get() == 0);
+    }
+
+    private record Counter(TrackedSummoner summoner, AtomicLong count) {}
+
+    public record TrackedSummoner(String gameName, String tagLine, String region) {}
+}
@@ -0,0 +1,163 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.entity.MatchIdIndexEntry;
+import com.lol.mastery_dashboard.entity.MatchIdSyncState;
+import com.lol.mastery_dashboard.repository.MatchIdIndexRepository;
+import com.lol.mastery_dashboard.repository.MatchIdSyncStateRepository;
+import com.lol.mastery_dashboard.util.SingleFlight;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+Keeps a local, ordered match ID list per player.
+
+Repeat visits only ask Riot for games that started after the last sync (minus an overlap for games
+that were still running), and reaching further back pages with a fixed endTime so offsets are stable.
+ */
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchIdSyncService {
+
+    private final RiotApiService riotApiService;
+    private final MatchIdSyncStateRepository syncStateRepository;
+    private final MatchIdIndexRepository matchIdIndexRepository;
+    private final MatchFetchProperties matchFetchProperties;
+
+    // One sync per player at a time, the state row and its cursors are only ever written by one caller
+    private final SingleFlight<String, Integer> syncFlights = new SingleFlight<>();
+
+    /*
+    Match IDs newest first, skipping the first `start` and returning at most `count`.
+    A caller that joined a sync reaching less far back than it needs runs another one after it.
+     */
+
+    public List<String> getMatchIds(String puuid, String region, int start, int count) {
+        int wanted = start + count;
+        int synced;
+        do {
+            synced = syncFlights.execute(puuid, () -> sync(puuid, region, wanted));
+        } while (synced < wanted);
+
+        return matchIdIndexRepository.findMatchIds(puuid, PageRequest.of(0, wanted))
+                .stream()
+                .skip(start)
+                .toList();
+    }
+
+    /*
+    Brings the stored IDs up to date and at least `wanted` deep, returns how deep they now go
+     */
+
+    private int sync(String puuid, String region, int wanted) {
+        long now = Instant.now().getEpochSecond();
+
+        MatchIdSyncState state = syncStateRepository.findById(puuid).orElse(null);
+        if (state == null) {
+            state = new MatchIdSyncState(puuid, region, now, now, 0, false, LocalDateTime.now());
+        } else if (state.getLastSynced().isBefore(LocalDateTime.now().minus(matchFetchProperties.getSyncInterval()))) {
+            syncNewer(state, now);
+        }
+
+        long known = matchIdIndexRepository.countByPuuid(puuid);
+        if (known < wanted && !state.getHistoryExhausted()) {
+            backfill(state, (int) (wanted - known));
+        }
+
+        syncStateRepository.save(state);
+        return state.getHistoryExhausted() ? Integer.MAX_VALUE : wanted;
+    }
+
+    /*
+    Everything that started since the last sync, a page at a time
+     */
+
+    private void syncNewer(MatchIdSyncState state, long now) {
+        long startTime = state.getSyncedThrough() - matchFetchProperties.getSyncOverlap().toSeconds();
+        int pageSize = matchFetchProperties.getSyncPageSize();
+        int offset = 0;
+        int added = 0;
+
+        List<String> page;
+        do {
+            page = riotApiService.getMatchIds(state.getPuuid(), state.getRegion(), startTime, null, offset, pageSize);
+            added += merge(state.getPuuid(), page);
+            offset += page.size();
+        } while (page.size() == pageSize);
+
+        state.setSyncedThrough(now);
+        state.setLastSynced(LocalDateTime.now());
+        log.info("Synced {} new match IDs for PUUID: {}", added, state.getPuuid());
+    }
+
+    /*
+    Older games, paged from the fixed anchor so the same offset always means the same game.
+    Nothing newer than the anchor is asked for, so lastSynced is left to syncNewer.
+     */
+
+    private void backfill(MatchIdSyncState state, int needed) {
+        int pageSize = matchFetchProperties.getSyncPageSize();
+
+        while (needed > 0 && !state.getHistoryExhausted()) {
+            int requested = Math.min(needed, pageSize);
+            List<String> page = riotApiService.getMatchIds(
+                    state.getPuuid(), state.getRegion(), null, state.getAnchorTime(), state.getBackfillOffset(), requested);
+
+            merge(state.getPuuid(), page);
+            state.setBackfillOffset(state.getBackfillOffset() + page.size());
+            if (page.size() < requested) {
+                state.setHistoryExhausted(true);
+            }
+            needed -= page.size();
+        }
+    }
+
+    private int merge(String puuid, List<String> matchIds) {
+        if (matchIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> known = new HashSet<>(matchIdIndexRepository.findKnownMatchIds(puuid, matchIds));
+        List<MatchIdIndexEntry> entries = matchIds.stream()
+                .distinct()
+                .filter(id -> !known.contains(id))
+                .map(id -> new MatchIdIndexEntry(puuid, id, matchNumber(id)))
+                .toList();
+
+        try {
+            matchIdIndexRepository.saveAll(entries);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request for the same player got there first, keep whatever it didn't add
+            log.warn("Match IDs for PUUID {} were merged concurrently, retrying one by one", puuid);
+            entries.forEach(this::saveIfAbsent);
+        }
+        return entries.size();
+    }
+
+    private void saveIfAbsent(MatchIdIndexEntry entry) {
+        try {
+            matchIdIndexRepository.save(new MatchIdIndexEntry(entry.getPuuid(), entry.getMatchId(), entry.getMatchNumber()));
+        } catch (DataIntegrityViolationException ignored) {
+            // Already there
+        }
+    }
+
+    static long matchNumber(String matchId) {
+        try {
+            return Long.parseLong(matchId.substring(matchId.indexOf('_') + 1));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
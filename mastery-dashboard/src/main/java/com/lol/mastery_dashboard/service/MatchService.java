@@ -1,7 +1,9 @@
 package com.lol.mastery_dashboard.service;
 
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
 import com.lol.mastery_dashboard.dto.response.MatchHistoryResponse;
 import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import com.lol.mastery_dashboard.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -9,8 +11,21 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -18,52 +33,84 @@ import java.util.List;
 public class MatchService {
 
     private final RiotApiService riotApiService;
+    private final MatchStoreService matchStoreService;
+    private final MatchIdSyncService matchIdSyncService;
+    private final MatchFetchProperties matchFetchProperties;
+    private final ExecutorService matchFetchExecutor;
+    private final RiotApiMetrics riotApiMetrics;
+
+    private final SingleFlight<MatchHistoryKey, MatchHistoryResponse> matchHistoryFlights = new SingleFlight<>();
+
+    /*
+    Concurrent requests for the same player, champion and count share one load
+     */
 
     public MatchHistoryResponse getChampionMatchHistory(String puuid, String region, int championId, int matchCount) {
+        return matchHistoryFlights.execute(new MatchHistoryKey(puuid, championId, matchCount),
+                () -> loadChampionMatchHistory(puuid, region, championId, matchCount, summary -> {}));
+    }
+
+    /*
+    Same as getChampionMatchHistory, but hands each match to the listener as soon as it and every
+    newer match are resolved. The returned response carries the totals once everything is in.
+     */
+
+    public MatchHistoryResponse streamChampionMatchHistory(String puuid, String region, int championId, int matchCount,
+                                                           Consumer<MatchHistoryResponse.MatchSummary> onMatch) {
+        return loadChampionMatchHistory(puuid, region, championId, matchCount, onMatch);
+    }
+
+    private MatchHistoryResponse loadChampionMatchHistory(String puuid, String region, int championId, int matchCount,
+                                                          Consumer<MatchHistoryResponse.MatchSummary> onMatch) {
         log.info("Fetching match history for champion {} - PUUID: {}", championId, puuid);
 
-        List<String> allMatchIds = riotApiService.getMatchIdsByPuuid(puuid, region, Math.min(matchCount * 2, 30));
+        List<String> allMatchIds = getMatchIds(puuid, region, Math.min(matchCount * 2, 30));
 
         if (allMatchIds == null || allMatchIds.isEmpty()) {
-            return buildEmptyResponse(championId);
+            MatchHistoryResponse empty = buildEmptyResponse(championId);
+            empty.setCareerStats(getCareerStats(puuid, championId));
+            return empty;
         }
 
         List<MatchHistoryResponse.MatchSummary> championMatches = new ArrayList<>();
-        int processedMatches = 0;
 
         // Get champion name from first match (or we could maintain a champion mapping)
         String championName = null;
 
-        for (String matchId : allMatchIds) {
-            if (championMatches.size() >= matchCount) {
-                break;
-            }
+        // Games we already have locally never go back to Riot
+        Map<String, MatchDto> storedMatches = matchStoreService.findPlayerMatches(puuid, allMatchIds);
 
-            try {
-                MatchDto match = riotApiService.getMatchDetails(matchId, region);
-                if (match != null) {
-                    MatchHistoryResponse.MatchSummary summary = extractPlayerMatch(match, puuid, championId);
-                    if (summary != null) {
-                        championMatches.add(summary);
-
-                        // Get champion name from the match data (Riot provides it)
-                        if (championName == null) {
-                            championName = getChampionNameFromMatch(match, puuid);
-                        }
-                    }
+        // Keep up to `parallelism` fetches in flight, but consume them in match ID order
+        Iterator<String> pendingIds = allMatchIds.iterator();
+        Deque<PendingMatch> inFlight = new ArrayDeque<>();
+        int fetched = fillWindow(inFlight, pendingIds, storedMatches, region);
+
+        try {
+            while (!inFlight.isEmpty() && championMatches.size() < matchCount) {
+                PendingMatch pending = inFlight.poll();
+                fetched += fillWindow(inFlight, pendingIds, storedMatches, region);
+
+                MatchDto match = await(pending);
+                if (match == null) {
+                    continue;
                 }
-                processedMatches++;
 
-                if (processedMatches % 10 == 0) {
-                    try {
-                        Thread.sleep(50);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                MatchHistoryResponse.MatchSummary summary = extractPlayerMatch(match, puuid, championId);
+                if (summary != null) {
+                    championMatches.add(summary);
+                    onMatch.accept(summary);
+
+                    // Get champion name from the match data (Riot provides it)
+                    if (championName == null) {
+                        championName = getChampionNameFromMatch(match, puuid);
                     }
                 }
-            } catch (Exception e) {
-                log.warn("Failed to fetch match {}: {}", matchId, e.getMessage());
             }
+        } finally {
+            // Enough matches found (or we bailed out). Fetches already running are left to store their
+            // match, interrupting one mid-save closes its pooled connection and wastes the Riot call
+            inFlight.forEach(pending -> pending.future().cancel(false));
+            riotApiMetrics.recordMatchFanOut(fetched);
         }
 
         MatchHistoryResponse.MatchStats stats = calculateStats(championMatches);
@@ -73,9 +120,99 @@ public class MatchService {
                 .championName(championName)  // ← NOW SET!
                 .recentMatches(championMatches)
                 .overallStats(stats)
+                .careerStats(getCareerStats(puuid, championId))
                 .build();
     }
 
+    /*
+    Store a player's most recent matches ahead of any request for them, one at a time while the
+    caller's rate budget allows. Returns how many matches were fetched from Riot.
+     */
+
+    public int ingestRecentMatches(String puuid, String region, int count, BooleanSupplier hasBudget) {
+        if (!hasBudget.getAsBoolean()) {
+            return 0;
+        }
+
+        List<String> matchIds = getMatchIds(puuid, region, count);
+        if (matchIds == null || matchIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> stored = matchStoreService.findPlayerMatches(puuid, matchIds).keySet();
+        int ingested = 0;
+        for (String matchId : matchIds) {
+            if (stored.contains(matchId)) {
+                continue;
+            }
+            if (!hasBudget.getAsBoolean()) {
+                break;
+            }
+            if (fetchAndStore(matchId, region) != null) {
+                ingested++;
+            }
+        }
+        return ingested;
+    }
+
+    private List<String> getMatchIds(String puuid, String region, int count) {
+        return matchFetchProperties.isIncrementalSync()
+                ? matchIdSyncService.getMatchIds(puuid, region, 0, count)
+                : riotApiService.getMatchIdsByPuuid(puuid, region, count);
+    }
+
+    // Returns how many of the added matches have to come from Riot
+    private int fillWindow(Deque<PendingMatch> inFlight, Iterator<String> pendingIds,
+                           Map<String, MatchDto> storedMatches, String region) {
+        int fetched = 0;
+        while (inFlight.size() < matchFetchProperties.getParallelism() && pendingIds.hasNext()) {
+            String matchId = pendingIds.next();
+            MatchDto stored = storedMatches.get(matchId);
+            Future<MatchDto> future;
+            if (stored != null) {
+                future = CompletableFuture.completedFuture(stored);
+            } else {
+                future = matchFetchExecutor.submit(() -> fetchAndStore(matchId, region));
+                fetched++;
+            }
+            inFlight.add(new PendingMatch(matchId, future));
+        }
+        return fetched;
+    }
+
+    private MatchDto fetchAndStore(String matchId, String region) {
+        MatchDto match = riotApiService.getMatchDetails(matchId, region);
+        if (match != null) {
+            try {
+                matchStoreService.saveMatch(match);
+            } catch (Exception e) {
+                // Most likely a concurrent request stored it first, the match itself is still good
+                log.warn("Failed to store match {}: {}", matchId, e.getMessage());
+            }
+        }
+        return match;
+    }
+
+    private MatchDto await(PendingMatch pending) {
+        try {
+            return pending.future().get(matchFetchProperties.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Not interrupted either, the response goes on without it but the fetch still stores its match
+            pending.future().cancel(false);
+            log.warn("Timed out fetching match {}", pending.matchId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future().cancel(false);
+        } catch (ExecutionException e) {
+            log.warn("Failed to fetch match {}: {}", pending.matchId(), e.getCause().getMessage());
+        }
+        return null;
+    }
+
+    private record MatchHistoryKey(String puuid, int championId, int matchCount) {}
+
+    private record PendingMatch(String matchId, Future<MatchDto> future) {}
+
     /**
      * Extract champion name from match data
      */
@@ -87,7 +224,7 @@ public class MatchService {
                 .orElse(null);
     }
 
-    private MatchHistoryResponse.MatchSummary extractPlayerMatch(MatchDto match, String puuid, int championId) {
+    MatchHistoryResponse.MatchSummary extractPlayerMatch(MatchDto match, String puuid, int championId) {
         // Find the participant matching this PUUID
         MatchDto.Participant player = match.getInfo().getParticipants().stream()
                 .filter(p -> p.getPuuid().equals(puuid))
@@ -98,11 +235,6 @@ public class MatchService {
             return null; // Not this champion
         }
 
-        // Calculate KDA
-        double kda = player.getDeaths() == 0
-                ? (player.getKills() + player.getAssists())
-                : (double) (player.getKills() + player.getAssists()) / player.getDeaths();
-
         // Convert timestamp to LocalDateTime
         LocalDateTime gameDate = LocalDateTime.ofInstant(
                 Instant.ofEpochMilli(match.getInfo().getGameCreation()),
@@ -118,7 +250,7 @@ public class MatchService {
                 .kills(player.getKills())
                 .deaths(player.getDeaths())
                 .assists(player.getAssists())
-                .kda(Math.round(kda * 100.0) / 100.0) // Round to 2 decimals
+                .kda(kda(player.getKills(), player.getDeaths(), player.getAssists()))
                 .championLevel(player.getChampLevel())
                 .totalMinionsKilled(player.getTotalMinionsKilled() + player.getNeutralMinionsKilled())
                 .goldEarned(player.getGoldEarned())
@@ -127,7 +259,44 @@ public class MatchService {
                 .build();
     }
 
-    private MatchHistoryResponse.MatchStats calculateStats(List<MatchHistoryResponse.MatchSummary> matches) {
+    /*
+    KDA of a single game, rounded to 2 decimals
+     */
+
+    static double kda(int kills, int deaths, int assists) {
+        double kda = deaths == 0
+                ? (kills + assists)
+                : (double) (kills + assists) / deaths;
+        return Math.round(kda * 100.0) / 100.0;
+    }
+
+    /*
+    Totals over every stored game on this champion, a single row lookup
+     */
+
+    private MatchHistoryResponse.CareerStats getCareerStats(String puuid, int championId) {
+        return matchStoreService.findChampionStats(puuid, championId)
+                .filter(stats -> stats.getGames() > 0)
+                .map(stats -> {
+                    double games = stats.getGames();
+                    return MatchHistoryResponse.CareerStats.builder()
+                            .totalGames(stats.getGames())
+                            .wins(stats.getWins())
+                            .losses(stats.getGames() - stats.getWins())
+                            .winRate(Math.round(stats.getWins() / games * 100 * 10.0) / 10.0)
+                            .averageKDA(Math.round(stats.getKdaSum() / games * 100.0) / 100.0)
+                            .averageKills(Math.round(stats.getKills() / games * 10.0) / 10.0)
+                            .averageDeaths(Math.round(stats.getDeaths() / games * 10.0) / 10.0)
+                            .averageAssists(Math.round(stats.getAssists() / games * 10.0) / 10.0)
+                            .averageCreepScore(Math.round(stats.getCreepScore() / games * 10.0) / 10.0)
+                            .averageGold(Math.round(stats.getGoldEarned() / games))
+                            .averageGameDuration(Math.round(stats.getDurationSeconds() / games))
+                            .build();
+                })
+                .orElse(null);
+    }
+
+    MatchHistoryResponse.MatchStats calculateStats(List<MatchHistoryResponse.MatchSummary> matches) {
         if (matches.isEmpty()) {
             return MatchHistoryResponse.MatchStats.builder()
                     .totalGames(0)
@@ -141,30 +310,29 @@ public class MatchService {
                     .build();
         }
 
+        // Single pass over the summaries
         int totalGames = matches.size();
-        int wins = (int) matches.stream().filter(MatchHistoryResponse.MatchSummary::isWin).count();
+        int wins = 0;
+        double kdaSum = 0;
+        long killsSum = 0;
+        long deathsSum = 0;
+        long assistsSum = 0;
+        for (MatchHistoryResponse.MatchSummary match : matches) {
+            if (match.isWin()) {
+                wins++;
+            }
+            kdaSum += match.getKda();
+            killsSum += match.getKills();
+            deathsSum += match.getDeaths();
+            assistsSum += match.getAssists();
+        }
+
         int losses = totalGames - wins;
         double winRate = Math.round((double) wins / totalGames * 100 * 10.0) / 10.0;
-
-        double avgKDA = matches.stream()
-                .mapToDouble(MatchHistoryResponse.MatchSummary::getKda)
-                .average()
-                .orElse(0.0);
-
-        double avgKills = matches.stream()
-                .mapToDouble(MatchHistoryResponse.MatchSummary::getKills)
-                .average()
-                .orElse(0.0);
-
-        double avgDeaths = matches.stream()
-                .mapToDouble(MatchHistoryResponse.MatchSummary::getDeaths)
-                .average()
-                .orElse(0.0);
-
-        double avgAssists = matches.stream()
-                .mapToDouble(MatchHistoryResponse.MatchSummary::getAssists)
-                .average()
-                .orElse(0.0);
+        double avgKDA = kdaSum / totalGames;
+        double avgKills = (double) killsSum / totalGames;
+        double avgDeaths = (double) deathsSum / totalGames;
+        double avgAssists = (double) assistsSum / totalGames;
 
         return MatchHistoryResponse.MatchStats.builder()
                 .totalGames(totalGames)
@@ -197,7 +365,7 @@ public class MatchService {
     }
 
     private String getGameModeName(Integer queueId) {
-        log.info("Queue ID: {}", queueId);
+        log.debug("Queue ID: {}", queueId);
         if (queueId == null) {
             return "Unknown";
         }
@@ -0,0 +1,184 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import com.lol.mastery_dashboard.entity.ChampionMatchStats;
+import com.lol.mastery_dashboard.entity.MatchParticipant;
+import com.lol.mastery_dashboard.entity.MatchRecord;
+import com.lol.mastery_dashboard.repository.ChampionMatchStatsRepository;
+import com.lol.mastery_dashboard.repository.MatchParticipantRepository;
+import com.lol.mastery_dashboard.repository.MatchRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+Durable store of finished matches so each game is downloaded from Riot only once
+ */
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchStoreService {
+
+    private final MatchRecordRepository matchRecordRepository;
+    private final MatchParticipantRepository matchParticipantRepository;
+    private final ChampionMatchStatsRepository championMatchStatsRepository;
+
+    /*
+    Stored matches for a player, keyed by match ID.
+    Each MatchDto only carries that player's participant, which is all champion filtering needs.
+     */
+
+    @Transactional(readOnly = true)
+    public Map<String, MatchDto> findPlayerMatches(String puuid, Collection<String> matchIds) {
+        Map<String, MatchDto> matches = new HashMap<>();
+        if (matchIds.isEmpty()) {
+            return matches;
+        }
+
+        for (Object[] row : matchParticipantRepository.findPlayerMatches(puuid, matchIds)) {
+            MatchParticipant participant = (MatchParticipant) row[0];
+            MatchRecord record = (MatchRecord) row[1];
+            matches.put(record.getMatchId(), toMatchDto(record, List.of(participant)));
+        }
+
+        log.info("Found {}/{} matches in local store for PUUID: {}", matches.size(), matchIds.size(), puuid);
+        return matches;
+    }
+
+    /*
+    Store a match fetched from Riot with every participant's stats
+     */
+
+    @Transactional
+    public void saveMatch(MatchDto match) {
+        if (match.getMetadata() == null || match.getInfo() == null || match.getInfo().getParticipants() == null) {
+            return;
+        }
+
+        String matchId = match.getMetadata().getMatchId();
+        if (matchRecordRepository.existsById(matchId)) {
+            return;
+        }
+
+        MatchDto.Info info = match.getInfo();
+
+        // Bots all share one placeholder PUUID, keep a single row per PUUID
+        Set<String> seen = new HashSet<>();
+        List<MatchDto.Participant> players = info.getParticipants().stream()
+                .filter(p -> p.getPuuid() != null && seen.add(p.getPuuid()))
+                .toList();
+
+        MatchRecord record = new MatchRecord();
+        record.setMatchId(matchId);
+        record.setGameCreation(info.getGameCreation());
+        record.setGameDuration(info.getGameDuration());
+        record.setGameMode(info.getGameMode());
+        record.setQueueId(info.getQueueId());
+        record.setStoredAt(LocalDateTime.now());
+        matchRecordRepository.save(record);
+
+        List<MatchParticipant> participants = players.stream()
+                .map(p -> toParticipantEntity(matchId, p))
+                .toList();
+        matchParticipantRepository.saveAll(participants);
+
+        // Same transaction as the insert, a match stored twice by racing requests fails as a whole
+        players.forEach(p -> addToChampionStats(info, p));
+
+        log.info("Stored match {} with {} participants", matchId, participants.size());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ChampionMatchStats> findChampionStats(String puuid, int championId) {
+        return championMatchStatsRepository.findById(new ChampionMatchStats.Key(puuid, championId));
+    }
+
+    private void addToChampionStats(MatchDto.Info info, MatchDto.Participant p) {
+        championMatchStatsRepository.addGame(
+                p.getPuuid(),
+                p.getChampionId(),
+                p.getChampionName(),
+                p.isWin() ? 1 : 0,
+                p.getKills(),
+                p.getDeaths(),
+                p.getAssists(),
+                p.getTotalMinionsKilled() + p.getNeutralMinionsKilled(),
+                p.getGoldEarned(),
+                info.getGameDuration(),
+                MatchService.kda(p.getKills(), p.getDeaths(), p.getAssists()),
+                info.getGameCreation()
+        );
+    }
+
+    private MatchParticipant toParticipantEntity(String matchId, MatchDto.Participant dto) {
+        MatchParticipant participant = new MatchParticipant();
+        participant.setMatchId(matchId);
+        participant.setPuuid(dto.getPuuid());
+        participant.setChampionId(dto.getChampionId());
+        participant.setChampionName(dto.getChampionName());
+        participant.setKills(dto.getKills());
+        participant.setDeaths(dto.getDeaths());
+        participant.setAssists(dto.getAssists());
+        participant.setWin(dto.isWin());
+        participant.setChampLevel(dto.getChampLevel());
+        participant.setTotalMinionsKilled(dto.getTotalMinionsKilled());
+        participant.setNeutralMinionsKilled(dto.getNeutralMinionsKilled());
+        participant.setGoldEarned(dto.getGoldEarned());
+        participant.setLane(dto.getLane());
+        participant.setRole(dto.getRole());
+        participant.setTeamPosition(dto.getTeamPosition());
+        return participant;
+    }
+
+    private MatchDto toMatchDto(MatchRecord record, List<MatchParticipant> participants) {
+        MatchDto.Metadata metadata = new MatchDto.Metadata();
+        metadata.setMatchId(record.getMatchId());
+        metadata.setParticipants(participants.stream().map(MatchParticipant::getPuuid).toList());
+
+        MatchDto.Info info = new MatchDto.Info();
+        info.setGameCreation(record.getGameCreation());
+        info.setGameDuration(record.getGameDuration());
+        info.setGameMode(record.getGameMode());
+        info.setQueueId(record.getQueueId() != null ? record.getQueueId() : 0);
+        info.setParticipants(participants.stream().map(this::toParticipantDto).toList());
+
+        MatchDto match = new MatchDto();
+        match.setMetadata(metadata);
+        match.setInfo(info);
+        return match;
+    }
+
+    private MatchDto.Participant toParticipantDto(MatchParticipant entity) {
+        MatchDto.Participant participant = new MatchDto.Participant();
+        participant.setPuuid(entity.getPuuid());
+        participant.setChampionId(entity.getChampionId());
+        participant.setChampionName(entity.getChampionName());
+        participant.setKills(valueOrZero(entity.getKills()));
+        participant.setDeaths(valueOrZero(entity.getDeaths()));
+        participant.setAssists(valueOrZero(entity.getAssists()));
+        participant.setWin(Boolean.TRUE.equals(entity.getWin()));
+        participant.setChampLevel(valueOrZero(entity.getChampLevel()));
+        participant.setTotalMinionsKilled(valueOrZero(entity.getTotalMinionsKilled()));
+        participant.setNeutralMinionsKilled(valueOrZero(entity.getNeutralMinionsKilled()));
+        participant.setGoldEarned(valueOrZero(entity.getGoldEarned()));
+        participant.setLane(entity.getLane());
+        participant.setRole(entity.getRole());
+        participant.setTeamPosition(entity.getTeamPosition());
+        return participant;
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
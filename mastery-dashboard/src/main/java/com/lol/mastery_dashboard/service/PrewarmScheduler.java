@@ -0,0 +1,169 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.PrewarmProperties;
+import com.lol.mastery_dashboard.config.RiotApiProperties;
+import com.lol.mastery_dashboard.config.SummonerRefreshProperties;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.entity.Summoner;
+import com.lol.mastery_dashboard.repository.SummonerRepository;
+import com.lol.mastery_dashboard.service.LookupTracker.TrackedSummoner;
+import com.lol.mastery_dashboard.util.RegionMapper;
+import com.lol.mastery_dashboard.util.RiotIdNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Keeps the roster and the most looked up summoners warm in the database.
+
+Each run refreshes whoever is about to go stale, taking one summoner per region in turn so a busy
+region can't starve the others, and stops using a routing value once its share of the Riot rate
+budget is used up. Refreshes may need Account-V1, so they all stop once its routing value is out of budget.
+Riot IDs that turn out not to exist are skipped for a while instead of being retried every run.
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "riot.prewarm", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PrewarmScheduler {
+
+    private final PrewarmProperties prewarmProperties;
+    private final SummonerRefreshProperties summonerRefreshProperties;
+    private final LookupTracker lookupTracker;
+    private final SummonerRepository summonerRepository;
+    private final SummonerService summonerService;
+    private final MatchService matchService;
+    private final RiotRateLimiter riotRateLimiter;
+    private final RiotApiProperties riotApiProperties;
+
+    // Not found on Riot, skipped until then
+    private final Map<TrackedSummoner, Instant> notFoundUntil = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${riot.prewarm.interval:30s}", initialDelayString = "${riot.prewarm.interval:30s}")
+    public void prewarm() {
+        Instant now = Instant.now();
+        notFoundUntil.values().removeIf(until -> until.isBefore(now));
+        List<TrackedSummoner> due = dueForRefresh(candidates().stream()
+                .filter(candidate -> !notFoundUntil.containsKey(candidate))
+                .toList());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int refreshed = 0;
+        Set<String> exhausted = new LinkedHashSet<>();
+        String account = riotApiProperties.accountRouting();
+        for (TrackedSummoner summoner : interleaveByRegion(due)) {
+            if (!hasBudget(account)) {
+                exhausted.add(account);
+                break;
+            }
+            String platform = summoner.region().toLowerCase(Locale.ROOT);
+            if (exhausted.contains(platform) || !hasBudget(platform)) {
+                exhausted.add(platform);
+                continue;
+            }
+
+            try {
+                SummonerResponse response = summonerService.refreshSummoner(
+                        summoner.gameName(), summoner.tagLine(), summoner.region());
+                refreshed++;
+                if (prewarmProperties.isIngestMatches()) {
+                    String regional = RegionMapper.getRegionalRoute(summoner.region());
+                    matchService.ingestRecentMatches(response.getPuuid(), summoner.region(),
+                            prewarmProperties.getIngestMatchCount(), () -> hasBudget(regional));
+                }
+            } catch (RuntimeException e) {
+                if (e.getMessage() != null && e.getMessage().contains("not found")) {
+                    notFoundUntil.put(summoner, now.plus(prewarmProperties.getNotFoundBackoff()));
+                }
+                log.warn("Pre-warm failed for {}#{} ({}): {}",
+                        summoner.gameName(), summoner.tagLine(), summoner.region(), e.getMessage());
+            }
+        }
+
+        log.info("Pre-warmed {}/{} summoners, out of budget on: {}", refreshed, due.size(), exhausted);
+    }
+
+    /*
+    On its own schedule so how long popularity lasts doesn't depend on how often pre-warming runs
+     */
+
+    @Scheduled(fixedDelayString = "${riot.prewarm.popularity-half-life:10m}",
+            initialDelayString = "${riot.prewarm.popularity-half-life:10m}")
+    public void decayPopularity() {
+        lookupTracker.decay();
+    }
+
+    private boolean hasBudget(String routing) {
+        return riotRateLimiter.hasHeadroom(routing, prewarmProperties.getRateBudgetShare());
+    }
+
+    private List<TrackedSummoner> candidates() {
+        Set<TrackedSummoner> candidates = new LinkedHashSet<>();
+        prewarmProperties.getRoster().forEach(entry -> candidates.add(new TrackedSummoner(
+                entry.getGameName(), entry.getTagLine(), entry.getRegion().toUpperCase(Locale.ROOT))));
+        candidates.addAll(lookupTracker.top(prewarmProperties.getTopN()));
+        return new ArrayList<>(candidates);
+    }
+
+    /*
+    Summoners never stored, or stored data that stops being fresh before the next run plus the lead time
+     */
+
+    private List<TrackedSummoner> dueForRefresh(List<TrackedSummoner> candidates) {
+        LocalDateTime deadline = LocalDateTime.now()
+                .minus(summonerRefreshProperties.getFreshFor())
+                .plus(prewarmProperties.getRefreshAhead())
+                .plus(prewarmProperties.getInterval());
+
+        return candidates.stream()
+                .filter(candidate -> summonerRepository
+                        .findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc(
+                                RiotIdNormalizer.key(candidate.gameName(), candidate.tagLine()), candidate.region())
+                        .map(Summoner::getLastUpdated)
+                        .map(lastUpdated -> lastUpdated.isBefore(deadline))
+                        .orElse(true))
+                .toList();
+    }
+
+    /*
+    Round robin over regions, keeping each region's own order
+     */
+
+    static List<TrackedSummoner> interleaveByRegion(List<TrackedSummoner> summoners) {
+        Map<String, Deque<TrackedSummoner>> byRegion = new LinkedHashMap<>();
+        summoners.forEach(summoner ->
+                byRegion.computeIfAbsent(summoner.region(), region -> new ArrayDeque<>()).add(summoner));
+
+        List<TrackedSummoner> interleaved = new ArrayList<>(summoners.size());
+        while (!byRegion.isEmpty()) {
+            Iterator<Deque<TrackedSummoner>> regions = byRegion.values().iterator();
+            while (regions.hasNext()) {
+                Deque<TrackedSummoner> queue = regions.next();
+                interleaved.add(queue.poll());
+                if (queue.isEmpty()) {
+                    regions.remove();
+                }
+            }
+        }
+        return interleaved;
+    }
+}
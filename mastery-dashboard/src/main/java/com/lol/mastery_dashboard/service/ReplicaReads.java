@@ -0,0 +1,58 @@
+package com.lol.mastery_dashboard.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lol.mastery_dashboard.config.ReplicaProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/*
+Reads of stored summoners, run in a read-only transaction so the routing data source sends them to the replica.
+Riot IDs written within the read-your-writes window stay on the primary, a refresh is never followed by the
+older copy a lagging replica still has. Without a replica the queries run as they are, no transaction added.
+ */
+
+@Component
+public class ReplicaReads {
+
+    private final boolean enabled;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Normalized Riot IDs recently written on the primary
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReplicaReads(ReplicaProperties replicaProperties, PlatformTransactionManager transactionManager) {
+        this.enabled = replicaProperties.isEnabled();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(replicaProperties.getReadYourWritesWindow())
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public <T> T read(String riotIdKey, Supplier<T> query) {
+        if (!enabled || recentWrites.getIfPresent(riotIdKey) != null) {
+            return query.get();
+        }
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    // Whole batch on the primary as soon as one of its Riot IDs was just written
+    public <T> T read(Collection<String> riotIdKeys, Supplier<T> query) {
+        if (!enabled || !recentWrites.getAllPresent(riotIdKeys).isEmpty()) {
+            return query.get();
+        }
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    public void written(String riotIdKey) {
+        if (enabled) {
+            recentWrites.put(riotIdKey, Boolean.TRUE);
+        }
+    }
+}
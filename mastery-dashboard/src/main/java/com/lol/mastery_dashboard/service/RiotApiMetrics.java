@@ -0,0 +1,126 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.util.RegionMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Metrics for traffic to the Riot API.
+
+Every attempt is timed per Riot method, routing value and status, so 429s and the retries that follow
+them show up on their own instead of being folded into one slow call. Each attempt is also tallied
+against the inbound request it was made for, which is recorded per endpoint when that request ends.
+ */
+
+@Component
+public class RiotApiMetrics implements ObservationHandler<ServerRequestObservationContext> {
+
+    // Key of the per-request call tally in the server request's observation context
+    private static final String UPSTREAM_CALLS = RiotApiMetrics.class.getName() + ".calls";
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary matchFanOut;
+
+    public RiotApiMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.matchFanOut = DistributionSummary.builder("riot.match.fanout")
+                .description("Match details fetched from Riot for one match history request")
+                .baseUnit("matches")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100.0)
+                .register(meterRegistry);
+    }
+
+    /*
+    WebClient filter timing every attempt. Registered after the rate limiter so it sits inside it,
+    time spent queueing for a slot isn't counted as Riot latency.
+     */
+
+    public ExchangeFilterFunction filter(String routingValue) {
+        String region = regionTag(routingValue);
+        return (request, next) -> Mono.deferContextual(context -> {
+            countAgainstRequest(context);
+            String method = RiotRateLimiter.method(request);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnNext(response -> sample.stop(timer(method, region, String.valueOf(response.statusCode().value()))))
+                    .doOnError(e -> sample.stop(timer(method, region, "IO_ERROR")));
+        });
+    }
+
+    /*
+    How many match details one history request had to fetch from Riot rather than the database
+     */
+
+    public void recordMatchFanOut(int fetched) {
+        matchFanOut.record(fetched);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        String uri = context.getPathPattern();
+        if (uri == null || !uri.startsWith("/api/")) {
+            return;
+        }
+        AtomicInteger calls = context.get(UPSTREAM_CALLS);
+        DistributionSummary.builder("riot.api.calls.per.request")
+                .description("Riot API calls made while serving one request")
+                .baseUnit("calls")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(calls == null ? 0 : calls.get());
+    }
+
+    private Timer timer(String method, String region, String status) {
+        return Timer.builder("riot.api.requests")
+                .description("Riot API calls, one per attempt")
+                .tag("method", method)
+                .tag("region", region)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /*
+    Riot calls carry their client observation in the Reactor context, its ancestors lead to the
+    request being served when context propagation is on
+     */
+
+    private static void countAgainstRequest(ContextView context) {
+        ObservationView observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+        while (observation != null) {
+            if (observation.getContextView() instanceof ServerRequestObservationContext server) {
+                server.computeIfAbsent(UPSTREAM_CALLS, key -> new AtomicInteger()).incrementAndGet();
+                return;
+            }
+            observation = observation.getContextView().getParentObservation();
+        }
+    }
+
+    // Clients are built for whatever region a request names, only known ones become tag values
+    private static String regionTag(String routingValue) {
+        String routing = routingValue.toLowerCase(Locale.ROOT);
+        boolean known = RegionMapper.REGIONAL_ROUTES.contains(routing)
+                || RegionMapper.PLATFORM_REGIONS.stream().anyMatch(routing::equalsIgnoreCase);
+        return known ? routing : "other";
+    }
+}
@@ -1,47 +1,44 @@
 package com.lol.mastery_dashboard.service;
 
-import com.lol.mastery_dashboard.config.RiotApiProperties;
+import com.lol.mastery_dashboard.config.RiotWebClientRegistry;
 import com.lol.mastery_dashboard.dto.riot.AccountDto;
 import com.lol.mastery_dashboard.dto.riot.ChampionMasteryDto;
 import com.lol.mastery_dashboard.dto.riot.SummonerDto;
 import com.lol.mastery_dashboard.dto.riot.MatchDto;
-import com.lol.mastery_dashboard.util.RegionMapper;
+import com.lol.mastery_dashboard.util.MatchDtoDecoder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.core.ParameterizedTypeReference;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j //Used for Logging
 public class RiotApiService {
 
-    private final RiotApiProperties riotApiProperties;
-    private final WebClient.Builder webClientBuilder;
+    private final RiotWebClientRegistry riotWebClients;
 
     /*
     Getting Account by Riot ID (GameName#TagLine)
     Using Account-V1 API on Americas Routing
      */
 
-    @Cacheable(value = "accounts", key = "#gameName + '_' + #tagLine")
+    // Account-V1 is global, so the key is the normalized Riot ID without a region
+    @Cacheable(value = "accounts", key = "T(com.lol.mastery_dashboard.util.RiotIdNormalizer).key(#gameName, #tagLine)")
     public AccountDto getAccountByRiotId(String gameName, String tagLine){
         log.info("Fetching account for: {}#{}", gameName, tagLine);
 
         try{
-            WebClient webClient = webClientBuilder
-                    .baseUrl(riotApiProperties.getAccountUrl())
-                    .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
-                    .build();
-            return webClient.get()
+            return riotWebClients.account().get()
                     .uri("/riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}", gameName, tagLine)
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "account-v1.getByRiotId")
                     .retrieve()
                     .bodyToMono(AccountDto.class)
                     .block();
@@ -64,15 +61,9 @@ public class RiotApiService {
         log.info("Fetching summoner for PUUID: {} in region: {}", puuid, region);
 
         try {
-            String regionalUrl = riotApiProperties.getSummonerUrl().replace("{region}", region.toLowerCase());
-
-            WebClient webClient = webClientBuilder
-                    .baseUrl(regionalUrl)
-                    .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
-                    .build();
-
-            return webClient.get()
+            return riotWebClients.platform(region).get()
                     .uri("/lol/summoner/v4/summoners/by-puuid/{puuid}", puuid)
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "summoner-v4.getByPuuid")
                     .retrieve()
                     .bodyToMono(SummonerDto.class)
                     .block();
@@ -92,15 +83,9 @@ public class RiotApiService {
         log.info("Fetching masteries for PUUID: {} in region: {}", puuid, region);
 
         try {
-            String regionalUrl = riotApiProperties.getSummonerUrl().replace("{region}", region.toLowerCase());
-
-            WebClient webClient = webClientBuilder
-                    .baseUrl(regionalUrl)
-                    .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
-                    .build();
-
-            return webClient.get()
+            return riotWebClients.platform(region).get()
                     .uri("/lol/champion-mastery/v4/champion-masteries/by-puuid/{puuid}", puuid)
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "champion-mastery-v4.getAllByPuuid")
                     .retrieve()
                     .bodyToFlux(ChampionMasteryDto.class)
                     .collectList()
@@ -115,20 +100,14 @@ public class RiotApiService {
     public List<String> getMatchIdsByPuuid(String puuid, String region, int count){
         log.info("Fetching match IDs for PUUID: {} in region: {}", puuid, region);
 
-        String matchApiUrl = RegionMapper.getMatchApiUrl(region);
-
         try {
-            WebClient webClient = webClientBuilder
-                    .baseUrl(matchApiUrl)
-                    .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
-                    .build();
-
-            List<String> matchIds = webClient.get()
+            List<String> matchIds = riotWebClients.regional(region).get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/lol/match/v5/matches/by-puuid/{puuid}/ids")
                             .queryParam("start", 0)
                             .queryParam("count", count)
                             .build(puuid))
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "match-v5.getMatchIdsByPuuid")
                     .retrieve()
                     .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
                     .block();
@@ -144,22 +123,51 @@ public class RiotApiService {
         }
     }
 
-    @Cacheable(value = "matches", key = "#matchId + '-' + #region")
-    public MatchDto getMatchDetails(String matchId, String region){
-        log.info("Fetching match details for: {}", matchId);
+    /*
+    One page of match IDs within a time range, used by incremental sync.
+    startTime / endTime are epoch seconds and may be null, results are newest first.
+     */
 
-        String matchApiUrl = RegionMapper.getMatchApiUrl(region);
+    public List<String> getMatchIds(String puuid, String region, Long startTime, Long endTime, int start, int count){
+        log.info("Fetching match IDs for PUUID: {} in region: {} (startTime={}, endTime={}, start={}, count={})",
+                puuid, region, startTime, endTime, start, count);
 
         try {
-            WebClient webClient = webClientBuilder
-                    .baseUrl(matchApiUrl)
-                    .defaultHeader("X-Riot-Token", riotApiProperties.getKey())
-                    .build();
+            List<String> matchIds = riotWebClients.regional(region).get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/lol/match/v5/matches/by-puuid/{puuid}/ids")
+                            .queryParamIfPresent("startTime", Optional.ofNullable(startTime))
+                            .queryParamIfPresent("endTime", Optional.ofNullable(endTime))
+                            .queryParam("start", start)
+                            .queryParam("count", count)
+                            .build(puuid))
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "match-v5.getMatchIdsByPuuid")
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+                    .block();
 
-            MatchDto match = webClient.get()
+            return matchIds != null ? matchIds : List.of();
+        }catch (WebClientResponseException.NotFound e){
+            log.error("Match history not found for PUUID: {}", puuid);
+            return List.of();
+        }catch (Exception e){
+            log.error("Error fetching match IDs: ", e);
+            throw new RuntimeException("Failed to fetch match IDs: " + e.getMessage());
+        }
+    }
+
+    @Cacheable(value = "matches", key = "#matchId + '-' + #region", unless = "#result == null")
+    public MatchDto getMatchDetails(String matchId, String region){
+        log.info("Fetching match details for: {}", matchId);
+
+        try {
+            MatchDto match = riotWebClients.regional(region).get()
                     .uri("/lol/match/v5/matches/{matchId}", matchId)
+                    .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, "match-v5.getMatch")
                     .retrieve()
-                    .bodyToMono(MatchDto.class)
+                    // Decoded chunk by chunk, only the fields MatchDto keeps are read
+                    .bodyToFlux(DataBuffer.class)
+                    .as(MatchDtoDecoder::decode)
                     .block();
 
             if(match != null && match.getInfo() != null){
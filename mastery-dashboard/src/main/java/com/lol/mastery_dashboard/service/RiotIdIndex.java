@@ -0,0 +1,38 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.dto.riot.AccountDto;
+import com.lol.mastery_dashboard.util.RiotIdNormalizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/*
+In-memory Riot ID -> account map, keyed by the normalized Riot ID.
+Size and TTL come from the "riotIds" cache spec, independent of the Riot response caches.
+ */
+
+@Component
+public class RiotIdIndex {
+
+    public static final String CACHE_NAME = "riotIds";
+
+    private final Cache cache;
+
+    public RiotIdIndex(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public Optional<AccountDto> get(String gameName, String tagLine) {
+        return Optional.ofNullable(cache.get(RiotIdNormalizer.key(gameName, tagLine), AccountDto.class));
+    }
+
+    // Stored under the name that was searched and the account's own spelling
+    public void put(String gameName, String tagLine, AccountDto account) {
+        cache.put(RiotIdNormalizer.key(gameName, tagLine), account);
+        if (account.getGameName() != null && account.getTagLine() != null) {
+            cache.put(RiotIdNormalizer.key(account.getGameName(), account.getTagLine()), account);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.RiotApiProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Client side scheduler for Riot's rate limits.
+
+Riot enforces an application limit per routing value (na1, euw1, americas, ...) and a method limit
+per endpoint within that routing value. Callers queue in FIFO order until both buckets have room,
+limits are learned from the X-App-Rate-Limit / X-Method-Rate-Limit headers and a 429 pauses the
+offending bucket for Retry-After before the request is retried.
+ */
+
+@Component
+@Slf4j
+public class RiotRateLimiter implements DisposableBean {
+
+    // Request attribute naming the Riot method, e.g. "match-v5.getMatch"
+    public static final String METHOD_ATTRIBUTE = RiotRateLimiter.class.getName() + ".method";
+
+    private static final String DEFAULT_METHOD = "default";
+
+    private final RiotApiProperties.RateLimit settings;
+    private final Map<String, Bucket> appBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> methodBuckets = new ConcurrentHashMap<>();
+
+    // Waiting for a slot parks a virtual thread, so thousands of queued callers don't pin platform threads
+    private final Scheduler waitScheduler = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("riot-rate-limit-", 0).factory()),
+            "riot-rate-limit");
+
+    public RiotRateLimiter(RiotApiProperties riotApiProperties) {
+        this.settings = riotApiProperties.getRateLimit();
+    }
+
+    /*
+    WebClient filter applying the limiter to every request of a routing value
+     */
+
+    public ExchangeFilterFunction filter(String routingValue) {
+        String routing = routingValue.toLowerCase(Locale.ROOT);
+        return (request, next) -> {
+            if (!settings.isEnabled()) {
+                return next.exchange(request);
+            }
+            return exchange(request, next, routing, method(request), 0);
+        };
+    }
+
+    static String method(ClientRequest request) {
+        return request.attribute(METHOD_ATTRIBUTE).map(Object::toString).orElse(DEFAULT_METHOD);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next,
+                                          String routing, String method, int attempt) {
+        return Mono.fromRunnable(() -> acquire(routing, method))
+                .subscribeOn(waitScheduler)
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    boolean throttled = response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+                    onResponse(routing, method, headers, throttled);
+
+                    if (throttled && attempt < settings.getMaxRetries()) {
+                        log.warn("Rate limited on {} {} (attempt {}), retrying", routing, method, attempt + 1);
+                        return response.releaseBody().then(exchange(request, next, routing, method, attempt + 1));
+                    }
+                    return Mono.just(response);
+                });
+    }
+
+    @Override
+    public void destroy() {
+        waitScheduler.dispose();
+    }
+
+    /*
+    Block until both the app bucket and the method bucket have room, then take a slot in each.
+    Method lock is always taken before the app lock so callers can't deadlock each other.
+     */
+
+    public void acquire(String routingValue, String method) {
+        String routing = routingValue.toLowerCase(Locale.ROOT);
+        Bucket methodBucket = methodBucket(routing, method);
+        Bucket appBucket = appBucket(routing);
+
+        methodBucket.queue.lock();
+        try {
+            methodBucket.awaitCapacity();
+            appBucket.queue.lock();
+            try {
+                appBucket.awaitCapacity();
+                appBucket.consume(System.nanoTime());
+            } finally {
+                appBucket.queue.unlock();
+            }
+            methodBucket.consume(System.nanoTime());
+        } finally {
+            methodBucket.queue.unlock();
+        }
+    }
+
+    /*
+    Whether every app window of a routing value is below the given share of its limit.
+    Lets background work use spare capacity without crowding out user requests.
+    Only reads buckets, a routing value nothing was sent to yet has all of its budget left.
+     */
+
+    public boolean hasHeadroom(String routingValue, double share) {
+        if (!settings.isEnabled()) {
+            return true;
+        }
+        Bucket appBucket = appBuckets.get(routingValue.toLowerCase(Locale.ROOT));
+        return appBucket == null || appBucket.below(share, System.nanoTime());
+    }
+
+    /*
+    Learn limits from response headers, and pause the right bucket on a 429
+     */
+
+    public void onResponse(String routingValue, String method, HttpHeaders headers, boolean throttled) {
+        String routing = routingValue.toLowerCase(Locale.ROOT);
+        Bucket appBucket = appBucket(routing);
+        Bucket methodBucket = methodBucket(routing, method);
+
+        appBucket.learn(headers.getFirst("X-App-Rate-Limit"), headers.getFirst("X-App-Rate-Limit-Count"));
+        methodBucket.learn(headers.getFirst("X-Method-Rate-Limit"), headers.getFirst("X-Method-Rate-Limit-Count"));
+
+        if (throttled) {
+            Duration retryAfter = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            String limitType = headers.getFirst("X-Rate-Limit-Type");
+            Bucket blocked = "application".equalsIgnoreCase(limitType) ? appBucket : methodBucket;
+            blocked.blockFor(retryAfter);
+            log.warn("429 from {} {} ({} limit), pausing for {}", routing, method, limitType, retryAfter);
+        }
+    }
+
+    private Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return settings.getDefaultRetryAfter();
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return settings.getDefaultRetryAfter();
+        }
+    }
+
+    // Routing values that have an app bucket, the ones something was sent to
+    Set<String> routingValues() {
+        return Set.copyOf(appBuckets.keySet());
+    }
+
+    private Bucket appBucket(String routing) {
+        return appBuckets.computeIfAbsent(routing, key -> new Bucket(parseWindows(settings.getAppLimits())));
+    }
+
+    private Bucket methodBucket(String routing, String method) {
+        // Method limits are unknown until Riot tells us about them
+        return methodBuckets.computeIfAbsent(routing + ":" + method, key -> new Bucket(List.of()));
+    }
+
+    /*
+    Parses Riot's "limit:seconds,limit:seconds" format, e.g. "20:1,100:120"
+     */
+
+    static List<Window> parseWindows(String header) {
+        List<Window> windows = new ArrayList<>();
+        if (header == null || header.isBlank()) {
+            return windows;
+        }
+        for (String part : header.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length == 2) {
+                try {
+                    windows.add(new Window(Integer.parseInt(pair[0].trim()), Long.parseLong(pair[1].trim())));
+                } catch (NumberFormatException ignored) {
+                    // Skip malformed entries, the rest of the header is still usable
+                }
+            }
+        }
+        return windows;
+    }
+
+    /*
+    Fixed window counter, Riot starts a window on the first request after the previous one ends
+     */
+
+    static final class Window {
+        private final int limit;
+        private final long seconds;
+        private final long lengthNanos;
+        private long start;
+        private int count;
+
+        Window(int limit, long seconds) {
+            this.limit = limit;
+            this.seconds = seconds;
+            this.lengthNanos = TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        private void roll(long now) {
+            if (count > 0 && now - start >= lengthNanos) {
+                count = 0;
+            }
+        }
+
+        long waitNanos(long now) {
+            roll(now);
+            return count >= limit ? start + lengthNanos - now : 0;
+        }
+
+        void consume(long now) {
+            roll(now);
+            if (count == 0) {
+                start = now;
+            }
+            count++;
+        }
+
+        boolean sameShape(Window other) {
+            return limit == other.limit && seconds == other.seconds;
+        }
+    }
+
+    static final class Bucket {
+        // Fair lock, waiting callers are served in arrival order
+        private final ReentrantLock queue = new ReentrantLock(true);
+        private List<Window> windows;
+        private long blockedUntil;
+
+        Bucket(List<Window> windows) {
+            this.windows = windows;
+        }
+
+        private void awaitCapacity() {
+            long wait;
+            while ((wait = waitNanos(System.nanoTime())) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for Riot rate limit", e);
+                }
+            }
+        }
+
+        synchronized long waitNanos(long now) {
+            long wait = Math.max(0, blockedUntil - now);
+            for (Window window : windows) {
+                wait = Math.max(wait, window.waitNanos(now));
+            }
+            return wait;
+        }
+
+        synchronized void consume(long now) {
+            windows.forEach(window -> window.consume(now));
+        }
+
+        synchronized boolean below(double share, long now) {
+            if (blockedUntil > now) {
+                return false;
+            }
+            for (Window window : windows) {
+                window.roll(now);
+                if (window.count >= Math.max(1, (int) (window.limit * share))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized void blockFor(Duration duration) {
+            blockedUntil = Math.max(blockedUntil, System.nanoTime() + duration.toNanos());
+        }
+
+        synchronized void learn(String limitHeader, String countHeader) {
+            long now = System.nanoTime();
+            List<Window> learned = parseWindows(limitHeader);
+            if (!learned.isEmpty() && !sameShape(learned)) {
+                // The response we are looking at already used a slot in the new windows
+                learned.forEach(window -> window.consume(now));
+                windows = learned;
+            }
+
+            // Riot's counts are authoritative, but ours may include requests still in flight
+            for (Window reported : parseWindows(countHeader)) {
+                for (Window window : windows) {
+                    if (window.seconds == reported.seconds) {
+                        window.roll(now);
+                        if (window.count == 0 && reported.limit > 0) {
+                            window.start = now;
+                        }
+                        window.count = Math.max(window.count, reported.limit);
+                    }
+                }
+            }
+        }
+
+        private boolean sameShape(List<Window> other) {
+            if (other.size() != windows.size()) {
+                return false;
+            }
+            for (int i = 0; i < other.size(); i++) {
+                if (!other.get(i).sameShape(windows.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
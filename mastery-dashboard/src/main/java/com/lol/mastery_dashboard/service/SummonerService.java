@@ -1,6 +1,10 @@
 package com.lol.mastery_dashboard.service;
 
+import com.lol.mastery_dashboard.config.SummonerRefreshProperties;
+import com.lol.mastery_dashboard.dto.request.MasteryQuery;
+import com.lol.mastery_dashboard.dto.response.BatchSummonerResponse;
 import com.lol.mastery_dashboard.dto.response.ChampionMasteryResponse;
+import com.lol.mastery_dashboard.dto.response.MasteryChangeResponse;
 import com.lol.mastery_dashboard.dto.response.SummonerResponse;
 import com.lol.mastery_dashboard.dto.riot.AccountDto;
 import com.lol.mastery_dashboard.dto.riot.ChampionMasteryDto;
@@ -8,71 +12,355 @@ import com.lol.mastery_dashboard.dto.riot.SummonerDto;
 import com.lol.mastery_dashboard.entity.ChampionMastery;
 import com.lol.mastery_dashboard.entity.Summoner;
 import com.lol.mastery_dashboard.repository.ChampionMasteryRepository;
+import com.lol.mastery_dashboard.repository.SummonerMasteryRow;
 import com.lol.mastery_dashboard.repository.SummonerRepository;
+import com.lol.mastery_dashboard.util.RiotIdNormalizer;
+import com.lol.mastery_dashboard.util.SingleFlight;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SummonerService {
+    private static final String DEFAULT_MASTERY_SORT = "points-desc";
+
     private final RiotApiService riotApiService;
     private final SummonerRepository summonerRepository;
     private final ChampionMasteryRepository championMasteryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SummonerRefreshProperties summonerRefreshProperties;
+    private final ExecutorService summonerRefreshExecutor;
+    private final LookupTracker lookupTracker;
+    private final RiotIdIndex riotIdIndex;
+    private final ObservationRegistry observationRegistry;
+    private final ReplicaReads replicaReads;
+
+    private final SingleFlight<SummonerKey, SummonerResponse> summonerFlights = new SingleFlight<>();
+    // Riot fetch and write, shared by inline, background and pre-warm refreshes of the same summoner
+    private final SingleFlight<SummonerKey, SummonerResponse> refreshFlights = new SingleFlight<>();
+    private final Set<SummonerKey> refreshing = ConcurrentHashMap.newKeySet();
 
     /*
-    Main method to find or create a summoner with all the mastery data
+    Main method to find or create a summoner with all the mastery data.
+    Concurrent requests for the same Riot ID share one Riot fetch and one database write.
      */
 
-    @Transactional
     public SummonerResponse findOrCreateSummoner(String gameName, String tagLine, String region){
         log.info("Processing summoner request: {}#{} ({})", gameName, tagLine, region);
+        lookupTracker.record(gameName, tagLine, region);
+        return summonerFlights.execute(new SummonerKey(RiotIdNormalizer.key(gameName, tagLine), region),
+                () -> loadSummoner(gameName, tagLine, region));
+    }
+
+    /*
+    Same lookup, returning only the masteries the query asks for. Stored data is sorted, filtered and
+    paged by the database and the totals are summed there too, so the other champions are never loaded.
+    Whatever has to come from Riot goes through the lookup above first.
+     */
+
+    public SummonerResponse findOrCreateSummoner(String gameName, String tagLine, String region, MasteryQuery query){
+        if(query.isEmpty()){
+            return findOrCreateSummoner(gameName, tagLine, region);
+        }
+
+        String riotIdKey = RiotIdNormalizer.key(gameName, tagLine);
+        Summoner stored = replicaReads.read(riotIdKey, () -> summonerRepository
+                .findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc(riotIdKey, region)
+                .orElse(null));
+        if(stored == null || !servableFromDatabase(stored.getLastUpdated())){
+            // Copied, callers sharing the same flight still get the whole list
+            SummonerResponse loaded = findOrCreateSummoner(gameName, tagLine, region);
+            return withMasteries(loaded.toBuilder(), riotIdKey, loaded.getPuuid(), query);
+        }
+
+        log.info("Processing summoner request: {}#{} ({}), masteries {}", gameName, tagLine, region, query);
+        lookupTracker.record(gameName, tagLine, region);
+        boolean stale = age(stored.getLastUpdated()).compareTo(summonerRefreshProperties.getFreshFor()) >= 0;
+        if(stale){
+            refreshInBackground(gameName, tagLine, region);
+        }
+        return withMasteries(summaryOf(stored).stale(stale), riotIdKey, stored.getPuuid(), query);
+    }
+
+    /*
+    Refresh from Riot regardless of how fresh the stored data is, used by the pre-warm scheduler
+     */
+
+    public SummonerResponse refreshSummoner(String gameName, String tagLine, String region){
+        return summonerFlights.execute(new SummonerKey(RiotIdNormalizer.key(gameName, tagLine), region),
+                () -> fetchAndSave(gameName, tagLine, region, true));
+    }
+
+    /*
+    Look up a whole team at once. Stored summoners come from one query, their masteries from another,
+    and whatever needs Riot is resolved concurrently through the same rate limiter as single lookups.
+    A failure only fails its own item.
+     */
+
+    public BatchSummonerResponse findOrCreateSummoners(List<String> riotIds, String region){
+        log.info("Processing batch summoner request: {} Riot IDs ({})", riotIds.size(), region);
+
+        List<String> riotIdKeys = riotIdKeys(riotIds);
+        Map<String, Summoner> stored = new HashMap<>();
+        for(Summoner summoner : replicaReads.read(riotIdKeys,
+                () -> summonerRepository.findByRiotIdKeyInAndRegion(riotIdKeys, region))){
+            stored.merge(summoner.getRiotIdKey(), summoner,
+                    (a, b) -> a.getLastUpdated().isAfter(b.getLastUpdated()) ? a : b);
+        }
+
+        List<String> servablePuuids = stored.values().stream()
+                .filter(summoner -> servableFromDatabase(summoner.getLastUpdated()))
+                .map(Summoner::getPuuid)
+                .toList();
+        Map<String, List<ChampionMastery>> masteries = servablePuuids.isEmpty() ? Map.of() :
+                replicaReads.read(riotIdKeys, () -> championMasteryRepository.findBySummonerPuuidIn(servablePuuids)).stream()
+                        .collect(Collectors.groupingBy(mastery -> mastery.getSummoner().getPuuid()));
+
+        List<Future<SummonerResponse>> lookups = new ArrayList<>();
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            for(String riotId : riotIds){
+                String[] parts = splitRiotId(riotId);
+                lookups.add(parts == null ? null : executor.submit(() -> {
+                    lookupTracker.record(parts[0], parts[1], region);
+                    Summoner existing = stored.get(RiotIdNormalizer.key(parts[0], parts[1]));
+                    return summonerFlights.execute(new SummonerKey(RiotIdNormalizer.key(parts[0], parts[1]), region),
+                            () -> loadSummoner(parts[0], parts[1], region,
+                                    existing == null ? null : existing.getLastUpdated(),
+                                    () -> mapToResponse(existing, masteries.getOrDefault(existing.getPuuid(), List.of()))));
+                }));
+            }
+        }
+
+        List<BatchSummonerResponse.Item> results = new ArrayList<>();
+        for(int i = 0; i < riotIds.size(); i++){
+            results.add(batchItem(riotIds.get(i), lookups.get(i)));
+        }
+        return BatchSummonerResponse.builder().region(region).results(results).build();
+    }
+
+    private BatchSummonerResponse.Item batchItem(String riotId, Future<SummonerResponse> lookup){
+        BatchSummonerResponse.Item.ItemBuilder item = BatchSummonerResponse.Item.builder().riotId(riotId);
+        if(lookup == null){
+            return item.error("Invalid Riot ID, expected gameName#tagLine").build();
+        }
+        try{
+            return item.summoner(lookup.get()).build();
+        }catch (ExecutionException e){
+            String message = e.getCause().getMessage();
+            log.warn("Batch lookup failed for {}: {}", riotId, message);
+            return item.error(message != null && message.contains("not found")
+                    ? "Summoner not found: " + riotId
+                    : "Failed to fetch summoner data").build();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return item.error("Interrupted").build();
+        }
+    }
+
+    private List<String> riotIdKeys(List<String> riotIds){
+        return riotIds.stream()
+                .map(this::splitRiotId)
+                .filter(Objects::nonNull)
+                .map(parts -> RiotIdNormalizer.key(parts[0], parts[1]))
+                .distinct()
+                .toList();
+    }
+
+    private String[] splitRiotId(String riotId){
+        int separator = riotId.lastIndexOf('#');
+        if(separator <= 0 || separator == riotId.length() - 1){
+            return null;
+        }
+        return new String[]{riotId.substring(0, separator), riotId.substring(separator + 1)};
+    }
 
-        Summoner existingSummoner = summonerRepository
-                .findByGameNameAndTagLineAndRegion(gameName, tagLine, region)
-                .orElse(null);
+    /*
+    Stored summoner and masteries come from a single statement, the rows are only mapped once they are servable
+     */
 
-        if(existingSummoner != null && isDataFresh(existingSummoner)){
-            log.info("Using cached summoner data from database");
-            return mapToResponse(existingSummoner);
+    private SummonerResponse loadSummoner(String gameName, String tagLine, String region){
+        String riotIdKey = RiotIdNormalizer.key(gameName, tagLine);
+        List<SummonerMasteryRow> rows = replicaReads.read(riotIdKey,
+                () -> summonerRepository.findLatestWithMasteries(riotIdKey, region));
+        LocalDateTime lastUpdated = rows.isEmpty() ? null : rows.getFirst().lastUpdated();
+        return loadSummoner(gameName, tagLine, region, lastUpdated, () -> mapToResponse(rows));
+    }
+
+    private SummonerResponse loadSummoner(String gameName, String tagLine, String region, LocalDateTime lastUpdated,
+                                          Supplier<SummonerResponse> storedResponse){
+        if(lastUpdated != null){
+            Duration age = age(lastUpdated);
+
+            if(age.compareTo(summonerRefreshProperties.getFreshFor()) < 0){
+                log.info("Using cached summoner data from database");
+                return storedResponse.get();
+            }
+
+            if(servableFromDatabase(lastUpdated)){
+                log.info("Serving stale summoner data ({} old), refreshing in the background", age);
+                refreshInBackground(gameName, tagLine, region);
+                SummonerResponse response = storedResponse.get();
+                response.setStale(true);
+                return response;
+            }
         }
 
+        return fetchAndSave(gameName, tagLine, region);
+    }
+
+    /*
+    Fresh, or stale but still within what stale-while-revalidate may serve
+     */
+
+    private boolean servableFromDatabase(LocalDateTime lastUpdated){
+        Duration age = age(lastUpdated);
+        return age.compareTo(summonerRefreshProperties.getFreshFor()) < 0
+                || (summonerRefreshProperties.isStaleWhileRevalidate()
+                    && age.compareTo(summonerRefreshProperties.getMaxStaleness()) < 0);
+    }
+
+    private Duration age(LocalDateTime lastUpdated){
+        return Duration.between(lastUpdated, LocalDateTime.now());
+    }
+
+    /*
+    Fetch everything from Riot and store it, once per summoner however many callers ask at the same time.
+    Riot calls happen outside the transaction so no connection is held while waiting on them.
+    Reads of the Riot ID stay on the primary for a while after, the replica may not have the write yet.
+     */
+
+    private SummonerResponse fetchAndSave(String gameName, String tagLine, String region){
+        return fetchAndSave(gameName, tagLine, region, false);
+    }
+
+    // resolveFromRiot asks Account-V1 even if the Riot ID was resolved recently
+    private SummonerResponse fetchAndSave(String gameName, String tagLine, String region, boolean resolveFromRiot){
+        return refreshFlights.execute(new SummonerKey(RiotIdNormalizer.key(gameName, tagLine), region),
+                () -> fetchAndSaveNow(gameName, tagLine, region, resolveFromRiot));
+    }
+
+    private SummonerResponse fetchAndSaveNow(String gameName, String tagLine, String region, boolean resolveFromRiot){
         log.info("Fetching fresh data from Riot API");
-        AccountDto accountDto = riotApiService.getAccountByRiotId(gameName, tagLine);
+        AccountDto accountDto = resolveAccount(gameName, tagLine, resolveFromRiot);
         SummonerDto summonerDto = riotApiService.getSummonerByPuuid(accountDto.getPuuid(), region);
         List<ChampionMasteryDto> masteriesDto = riotApiService.getChampionMasteries(accountDto.getPuuid(), region);
 
-        Summoner summoner = saveOrUpdateSummoner(accountDto, summonerDto, region, masteriesDto);
-        return mapToResponse(summoner);
+        // Observed on its own (summoner.save) so database time is told apart from time spent on Riot
+        SummonerResponse response = Observation.createNotStarted("summoner.save", observationRegistry)
+                .observe(() -> transactionTemplate.execute(
+                        status -> saveOrUpdateSummoner(accountDto, summonerDto, region, masteriesDto)));
+        replicaReads.written(RiotIdNormalizer.key(gameName, tagLine));
+        if(accountDto.getGameName() != null && accountDto.getTagLine() != null){
+            replicaReads.written(RiotIdNormalizer.key(accountDto.getGameName(), accountDto.getTagLine()));
+        }
+        return response;
     }
 
     /*
-    Checking if the data is less than 5 minutes old
+    At most one background refresh per summoner, a full queue just means a later request tries again.
+    It joins any refresh of the same summoner already running instead of fetching again.
      */
 
-    private boolean isDataFresh(Summoner summoner){
-        LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-        return summoner.getLastUpdated().isAfter(fiveMinutesAgo);
+    private void refreshInBackground(String gameName, String tagLine, String region){
+        SummonerKey key = new SummonerKey(RiotIdNormalizer.key(gameName, tagLine), region);
+        if(!refreshing.add(key)){
+            return;
+        }
+        try{
+            summonerRefreshExecutor.execute(() -> {
+                try{
+                    fetchAndSave(gameName, tagLine, region);
+                }catch (RuntimeException e){
+                    log.warn("Background refresh failed for {}#{} ({}): {}", gameName, tagLine, region, e.getMessage());
+                }finally {
+                    refreshing.remove(key);
+                }
+            });
+        }catch (RejectedExecutionException e){
+            refreshing.remove(key);
+            log.warn("Refresh queue full, skipping background refresh for {}#{}", gameName, tagLine);
+        }
     }
 
     /*
-    Save or update summoner and all masteries
+    Riot ID -> account, from memory, then from stored summoners, and only then from Account-V1.
+    Riot IDs get renamed and change hands, so a stored summoner only answers for its Riot ID while it is
+    younger than maxStaleness, and only Account-V1 answers go into the index (its TTL bounds them the same way).
      */
 
-    @Transactional
-    protected Summoner saveOrUpdateSummoner(
+    private AccountDto resolveAccount(String gameName, String tagLine, boolean fromRiot){
+        if(!fromRiot){
+            Optional<AccountDto> known = riotIdIndex.get(gameName, tagLine);
+            if(known.isPresent()){
+                return known.get();
+            }
+
+            String riotIdKey = RiotIdNormalizer.key(gameName, tagLine);
+            Optional<AccountDto> stored = replicaReads.read(riotIdKey, () -> summonerRepository
+                    .findFirstByRiotIdKeyOrderByLastUpdatedDesc(riotIdKey))
+                    .filter(summoner -> age(summoner.getLastUpdated()).compareTo(summonerRefreshProperties.getMaxStaleness()) < 0)
+                    .map(this::toAccount);
+            if(stored.isPresent()){
+                return stored.get();
+            }
+        }
+
+        AccountDto account = riotApiService.getAccountByRiotId(gameName, tagLine);
+        if(account == null){
+            throw new RuntimeException("Summoner not found: " + gameName + "#" + tagLine);
+        }
+        riotIdIndex.put(gameName, tagLine, account);
+        return account;
+    }
+
+    private AccountDto toAccount(Summoner summoner){
+        AccountDto account = new AccountDto();
+        account.setPuuid(summoner.getPuuid());
+        account.setGameName(summoner.getGameName());
+        account.setTagLine(summoner.getTagLine());
+        return account;
+    }
+
+    /*
+    Save or update summoner, writing only the masteries that changed since the last refresh
+     */
+
+    private SummonerResponse saveOrUpdateSummoner(
             AccountDto accountDto,
             SummonerDto summonerDto,
             String region,
             List<ChampionMasteryDto> masteriesDto
     ){
-        Summoner summoner = summonerRepository.findById(accountDto.getPuuid()).orElse(new Summoner());
+        Summoner existing = summonerRepository.findById(accountDto.getPuuid()).orElse(null);
+        Summoner summoner = existing != null ? existing : new Summoner();
 
         summoner.setPuuid(accountDto.getPuuid());
         summoner.setGameName(accountDto.getGameName());
@@ -82,20 +370,110 @@ public class SummonerService {
         summoner.setSummonerLevel(summonerDto.getSummonerLevel());
         summoner.setLastUpdated(LocalDateTime.now());
 
-        summoner = summonerRepository.save(summoner);
-
-        championMasteryRepository.deleteBySummonerPuuid(summoner.getPuuid());
+        // Flushed so the JDBC writes below see the summoner row
+        summoner = summonerRepository.saveAndFlush(summoner);
 
         final Summoner savedSummoner = summoner;
         List<ChampionMastery> masteries = masteriesDto.stream()
                 .map(dto -> mapToMasteryEntity(dto, savedSummoner))
                 .collect(Collectors.toList());
 
-        championMasteryRepository.saveAll(masteries);
-        summoner.setChampionMasteries(masteries);
+        Map<Integer, ChampionMastery> stored = existing == null ? Map.of() :
+                championMasteryRepository.findBySummonerPuuid(summoner.getPuuid()).stream()
+                        .collect(Collectors.toMap(ChampionMastery::getChampionId, Function.identity(), (a, b) -> a));
+
+        List<ChampionMastery> changed = masteries.stream()
+                .filter(mastery -> !sameMastery(stored.get(mastery.getChampionId()), mastery))
+                .toList();
+        Set<Integer> incomingIds = masteries.stream().map(ChampionMastery::getChampionId).collect(Collectors.toSet());
+        boolean removed = stored.keySet().stream().anyMatch(id -> !incomingIds.contains(id));
+
+        // The rows are written with JDBC, so they are not added to the managed championMasteries collection
+        if (!changed.isEmpty()) {
+            championMasteryRepository.upsertAll(summoner.getPuuid(), changed);
+        }
+        if (removed) {
+            championMasteryRepository.deleteMissing(summoner.getPuuid(), incomingIds);
+        }
+
+        // A first lookup has nothing to compare against, so it reports no changes
+        List<MasteryChangeResponse> changes = existing == null ? List.of() : describeChanges(stored, changed, incomingIds);
+
+        log.info("Saved summoner {}: {}/{} masteries changed", summoner.getGameName(), changed.size(), masteries.size());
+        SummonerResponse response = mapToResponse(summoner, masteries);
+        response.setMasteryChanges(changes);
+        return response;
+    }
+
+    /*
+    Whether a stored row already holds everything Riot just returned
+     */
 
-        log.info("Saved summoner {} with {} masteries", summoner.getGameName(), masteries.size());
-        return summoner;
+    private boolean sameMastery(ChampionMastery stored, ChampionMastery incoming){
+        return stored != null
+                && Objects.equals(stored.getChampionLevel(), incoming.getChampionLevel())
+                && Objects.equals(stored.getChampionPoints(), incoming.getChampionPoints())
+                && Objects.equals(stored.getChampionPointsSinceLastLevel(), incoming.getChampionPointsSinceLastLevel())
+                && Objects.equals(stored.getChampionPointsUntilNextLevel(), incoming.getChampionPointsUntilNextLevel())
+                && Objects.equals(stored.getChestGranted(), incoming.getChestGranted())
+                && Objects.equals(stored.getTokensEarned(), incoming.getTokensEarned())
+                && Objects.equals(stored.getLastPlayTime(), incoming.getLastPlayTime());
+    }
+
+    /*
+    What changed for the player: new champions, level ups and points gained.
+    Rows that only changed chest, token or last play fields are stored but not reported.
+     */
+
+    private List<MasteryChangeResponse> describeChanges(
+            Map<Integer, ChampionMastery> stored,
+            List<ChampionMastery> changed,
+            Set<Integer> incomingIds
+    ){
+        List<MasteryChangeResponse> changes = new ArrayList<>();
+
+        for (ChampionMastery mastery : changed) {
+            ChampionMastery previous = stored.get(mastery.getChampionId());
+            if (previous == null) {
+                changes.add(MasteryChangeResponse.builder()
+                        .championId(mastery.getChampionId())
+                        .changeType(MasteryChangeResponse.ChangeType.NEW)
+                        .currentLevel(mastery.getChampionLevel())
+                        .pointsDelta(mastery.getChampionPoints())
+                        .build());
+                continue;
+            }
+
+            long pointsDelta = mastery.getChampionPoints() - previous.getChampionPoints();
+            MasteryChangeResponse.ChangeType type;
+            if (mastery.getChampionLevel() > previous.getChampionLevel()) {
+                type = MasteryChangeResponse.ChangeType.LEVEL_UP;
+            } else if (pointsDelta != 0) {
+                type = MasteryChangeResponse.ChangeType.POINTS;
+            } else {
+                continue;
+            }
+
+            changes.add(MasteryChangeResponse.builder()
+                    .championId(mastery.getChampionId())
+                    .changeType(type)
+                    .previousLevel(previous.getChampionLevel())
+                    .currentLevel(mastery.getChampionLevel())
+                    .pointsDelta(pointsDelta)
+                    .build());
+        }
+
+        stored.values().stream()
+                .filter(previous -> !incomingIds.contains(previous.getChampionId()))
+                .map(previous -> MasteryChangeResponse.builder()
+                        .championId(previous.getChampionId())
+                        .changeType(MasteryChangeResponse.ChangeType.REMOVED)
+                        .previousLevel(previous.getChampionLevel())
+                        .pointsDelta(-previous.getChampionPoints())
+                        .build())
+                .forEach(changes::add);
+
+        return changes;
     }
 
     /*
@@ -116,15 +494,80 @@ public class SummonerService {
         return mastery;
     }
 
+    /*
+    Fill in the masteries a query selects, with page details and totals over every champion
+     */
+
+    private SummonerResponse withMasteries(SummonerResponse.SummonerResponseBuilder response, String riotIdKey,
+                                           String puuid, MasteryQuery query){
+        String sort = query.getSort() != null ? query.getSort() : DEFAULT_MASTERY_SORT;
+        Pageable pageable = query.getLimit() == null
+                ? Pageable.unpaged(masterySort(sort))
+                : PageRequest.of(query.getPage() != null ? query.getPage() : 0, query.getLimit(), masterySort(sort));
+
+        Page<ChampionMastery> page = replicaReads.read(riotIdKey, () -> championMasteryRepository.findPage(
+                puuid, query.getLevel(), query.getChestAvailable(), pageable));
+        ChampionMasteryRepository.MasteryTotals totals = replicaReads.read(riotIdKey,
+                () -> championMasteryRepository.sumTotals(puuid));
+
+        return response
+                .championMasteries(page.map(this::mapToMasteryResponse).getContent())
+                .totalMasteryScore((int) totals.getTotalMasteryScore())
+                .chestsAvailable((int) totals.getChestsAvailable())
+                .masteryPage(SummonerResponse.MasteryPage.builder()
+                        .sort(sort)
+                        .page(page.getNumber())
+                        .limit(query.getLimit())
+                        .totalElements(page.getTotalElements())
+                        .totalPages(page.getTotalPages())
+                        .build())
+                .build();
+    }
+
+    /*
+    "points-desc" and friends to the order of one of the champion_mastery sort indexes.
+    Every column follows the requested direction, so ascending sorts scan the same index backwards.
+     */
+
+    private static Sort masterySort(String sort){
+        int separator = sort.lastIndexOf('-');
+        Sort.Direction direction = Sort.Direction.fromString(sort.substring(separator + 1));
+        Sort.Order tieBreak = new Sort.Order(direction, "championId");
+
+        return switch(sort.substring(0, separator)){
+            case "level" -> Sort.by(new Sort.Order(direction, "championLevel"),
+                    new Sort.Order(direction, "championPoints"), tieBreak);
+            case "lastPlayTime" -> {
+                Sort.Order lastPlayTime = new Sort.Order(direction, "lastPlayTime");
+                yield Sort.by(direction.isDescending() ? lastPlayTime.nullsLast() : lastPlayTime.nullsFirst(), tieBreak);
+            }
+            default -> Sort.by(new Sort.Order(direction, "championPoints"), tieBreak);
+        };
+    }
+
     /*
     Map Entity to response DTO
      */
 
-    private SummonerResponse mapToResponse(Summoner summoner){
-        List<ChampionMasteryResponse> masteries = summoner.getChampionMasteries().stream()
+    SummonerResponse mapToResponse(Summoner summoner, List<ChampionMastery> championMasteries){
+        return withTotals(summaryOf(summoner), championMasteries.stream()
                 .map(this::mapToMasteryResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
 
+    /*
+    Map joined summoner and mastery rows to the response DTO, rows without a champion carry only the summoner
+     */
+
+    SummonerResponse mapToResponse(List<SummonerMasteryRow> rows){
+        SummonerMasteryRow summoner = rows.getFirst();
+        return withTotals(summaryOf(summoner), rows.stream()
+                .filter(row -> row.championId() != null && row.puuid().equals(summoner.puuid()))
+                .map(this::mapToMasteryResponse)
+                .collect(Collectors.toList()));
+    }
+
+    private SummonerResponse withTotals(SummonerResponse.SummonerResponseBuilder summary, List<ChampionMasteryResponse> masteries){
         int totalMasteryScore = masteries.stream()
                 .mapToInt(ChampionMasteryResponse::getChampionLevel)
                 .sum();
@@ -133,6 +576,18 @@ public class SummonerService {
                 .filter(m -> !m.getChestGranted())
                 .count();
 
+        return summary
+                .championMasteries(masteries)
+                .totalMasteryScore(totalMasteryScore)
+                .chestsAvailable(chestAvailable)
+                .build();
+    }
+
+    /*
+    Summoner fields of the response, masteries and totals are left to the caller
+     */
+
+    private SummonerResponse.SummonerResponseBuilder summaryOf(Summoner summoner){
         return SummonerResponse.builder()
                 .puuid(summoner.getPuuid())
                 .gameName(summoner.getGameName())
@@ -141,10 +596,21 @@ public class SummonerService {
                 .profileIconId(summoner.getProfileIconId())
                 .summonerLevel(summoner.getSummonerLevel())
                 .lastUpdated(summoner.getLastUpdated())
-                .championMasteries(masteries)
-                .totalMasteryScore(totalMasteryScore)
-                .chestsAvailable(chestAvailable)
-                .build();
+                .stale(false)
+                .masteryChanges(List.of());
+    }
+
+    private SummonerResponse.SummonerResponseBuilder summaryOf(SummonerMasteryRow summoner){
+        return SummonerResponse.builder()
+                .puuid(summoner.puuid())
+                .gameName(summoner.gameName())
+                .tagLine(summoner.tagLine())
+                .region(summoner.region())
+                .profileIconId(summoner.profileIconId())
+                .summonerLevel(summoner.summonerLevel())
+                .lastUpdated(summoner.lastUpdated())
+                .stale(false)
+                .masteryChanges(List.of());
     }
 
     /*
@@ -165,33 +631,28 @@ public class SummonerService {
                 .build();
     }
 
+    private ChampionMasteryResponse mapToMasteryResponse(SummonerMasteryRow row){
+        return ChampionMasteryResponse.builder()
+                .championId(row.championId())
+                .championLevel(row.championLevel())
+                .championPoints(row.championPoints())
+                .championPointsSinceLastLevel(row.championPointsSinceLastLevel())
+                .championPointsUntilNextLevel(row.championPointsUntilNextLevel())
+                .chestGranted(row.chestGranted())
+                .tokensEarned(row.tokensEarned())
+                .lastPlayTime(row.lastPlayTime())
+                .isChestAvailable(!row.chestGranted())
+                .build();
+    }
+
     /**
      * Get summoner PUUID without refreshing mastery data
      * Used for match history lookups to avoid unnecessary database operations
      */
     public String getPuuidOnly(String gameName, String tagLine, String region) {
         log.info("Getting PUUID for {}#{} in {}", gameName, tagLine, region);
-
-        String normalizedRegion = region.toUpperCase();
-
-        // Check if we already have this summoner in database
-        java.util.Optional<Summoner> existingSummoner = summonerRepository
-                .findByGameNameAndTagLineAndRegion(gameName, tagLine, normalizedRegion);
-
-        if (existingSummoner.isPresent()) {
-            // Return cached PUUID
-            log.info("Found cached summoner with PUUID: {}", existingSummoner.get().getPuuid());
-            return existingSummoner.get().getPuuid();
-        }
-
-        // If not in database, fetch from Riot API
-        log.info("Summoner not in cache, fetching from Riot API");
-        AccountDto accountDto = riotApiService.getAccountByRiotId(gameName, tagLine);
-
-        if (accountDto == null) {
-            throw new RuntimeException("Summoner not found: " + gameName + "#" + tagLine);
-        }
-
-        return accountDto.getPuuid();
+        return resolveAccount(gameName, tagLine, false).getPuuid();
     }
+
+    private record SummonerKey(String riotIdKey, String region) {}
 }
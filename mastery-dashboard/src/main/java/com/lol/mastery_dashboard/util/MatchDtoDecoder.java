@@ -0,0 +1,200 @@
+package com.lol.mastery_dashboard.util;
+
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.async.ByteArrayFeeder;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.core.json.JsonFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/*
+Streaming decoder for match-v5 payloads.
+
+A match is ~10 participants with ~150 fields each plus challenges, perks and teams, and MatchDto
+uses a dozen of them. Chunks are fed to a non-blocking parser as they arrive and released straight
+away, so the body is never joined in memory, and everything outside the fields below is stepped
+over without being turned into Strings or objects.
+ */
+
+public class MatchDtoDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public static Mono<MatchDto> decode(Flux<DataBuffer> body) {
+        return body.reduceWith(MatchDtoDecoder.Reader::new, (reader, buffer) -> {
+                    try {
+                        reader.feed(buffer);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                    return reader;
+                })
+                .mapNotNull(Reader::finish);
+    }
+
+    public static MatchDto decode(byte[] json) {
+        Reader reader = new Reader();
+        reader.feed(ByteBuffer.wrap(json));
+        return reader.finish();
+    }
+
+    private enum Scope { ROOT, METADATA, INFO, PARTICIPANTS, PARTICIPANT, SKIPPED }
+
+    private static final class Reader {
+        // The byte[] flavour of the non-blocking parser is markedly faster than the ByteBuffer one
+        private final JsonParser parser = JSON_FACTORY.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+        private final ByteArrayFeeder feeder = (ByteArrayFeeder) parser.nonBlockingInputFeeder();
+        private final Deque<Scope> scopes = new ArrayDeque<>();
+        private final MatchDto match = new MatchDto();
+        private byte[] scratch = new byte[0];
+        private String property;
+        private boolean started;
+        private boolean done;
+
+        void feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    feed(chunks.next());
+                }
+            }
+        }
+
+        void feed(ByteBuffer chunk) {
+            int length = chunk.remaining();
+            if (chunk.hasArray()) {
+                int offset = chunk.arrayOffset() + chunk.position();
+                feeder.feedInput(chunk.array(), offset, offset + length);
+            } else {
+                // Direct (pooled) buffers are copied into a reused array, the parser has consumed it by the next feed
+                if (scratch.length < length) {
+                    scratch = new byte[length];
+                }
+                chunk.get(chunk.position(), scratch, 0, length);
+                feeder.feedInput(scratch, 0, length);
+            }
+            drain();
+        }
+
+        MatchDto finish() {
+            feeder.endOfInput();
+            drain();
+            parser.close();
+            if (!started) {
+                return null;
+            }
+            if (!done) {
+                throw new StreamReadException(parser, "Match payload ended before the root object was closed");
+            }
+            return match;
+        }
+
+        private void drain() {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                accept(token);
+            }
+        }
+
+        private void accept(JsonToken token) {
+            switch (token) {
+                case PROPERTY_NAME -> property = parser.currentName();
+                case START_OBJECT -> scopes.push(enterObject());
+                case START_ARRAY -> scopes.push(enterArray());
+                case END_OBJECT, END_ARRAY -> {
+                    scopes.pop();
+                    done = scopes.isEmpty();
+                }
+                default -> value(token);
+            }
+        }
+
+        private Scope enterObject() {
+            if (scopes.isEmpty()) {
+                started = true;
+                return Scope.ROOT;
+            }
+            Scope parent = scopes.peek();
+            if (parent == Scope.ROOT && "metadata".equals(property)) {
+                match.setMetadata(new MatchDto.Metadata());
+                return Scope.METADATA;
+            }
+            if (parent == Scope.ROOT && "info".equals(property)) {
+                match.setInfo(new MatchDto.Info());
+                return Scope.INFO;
+            }
+            if (parent == Scope.PARTICIPANTS) {
+                match.getInfo().getParticipants().add(new MatchDto.Participant());
+                return Scope.PARTICIPANT;
+            }
+            return Scope.SKIPPED;
+        }
+
+        private Scope enterArray() {
+            if (scopes.peek() == Scope.INFO && "participants".equals(property)) {
+                match.getInfo().setParticipants(new ArrayList<>(10));
+                return Scope.PARTICIPANTS;
+            }
+            return Scope.SKIPPED;
+        }
+
+        private void value(JsonToken token) {
+            if (token == JsonToken.VALUE_NULL || scopes.isEmpty()) {
+                return;
+            }
+            switch (scopes.peek()) {
+                case METADATA -> {
+                    if ("matchId".equals(property)) {
+                        match.getMetadata().setMatchId(parser.getString());
+                    }
+                }
+                case INFO -> info(match.getInfo());
+                case PARTICIPANT -> participant(match.getInfo().getParticipants().getLast(), token);
+                default -> {
+                    // Not a field MatchDto keeps
+                }
+            }
+        }
+
+        private void info(MatchDto.Info info) {
+            switch (property) {
+                case "gameCreation" -> info.setGameCreation(parser.getLongValue());
+                case "gameDuration" -> info.setGameDuration(parser.getLongValue());
+                case "gameMode" -> info.setGameMode(parser.getString());
+                case "queueId" -> info.setQueueId(parser.getIntValue());
+                default -> {
+                }
+            }
+        }
+
+        private void participant(MatchDto.Participant participant, JsonToken token) {
+            switch (property) {
+                case "puuid" -> participant.setPuuid(parser.getString());
+                case "championId" -> participant.setChampionId(parser.getIntValue());
+                case "championName" -> participant.setChampionName(parser.getString());
+                case "kills" -> participant.setKills(parser.getIntValue());
+                case "deaths" -> participant.setDeaths(parser.getIntValue());
+                case "assists" -> participant.setAssists(parser.getIntValue());
+                case "win" -> participant.setWin(token == JsonToken.VALUE_TRUE);
+                case "champLevel" -> participant.setChampLevel(parser.getIntValue());
+                case "totalMinionsKilled" -> participant.setTotalMinionsKilled(parser.getIntValue());
+                case "neutralMinionsKilled" -> participant.setNeutralMinionsKilled(parser.getIntValue());
+                case "goldEarned" -> participant.setGoldEarned(parser.getIntValue());
+                case "lane" -> participant.setLane(parser.getString());
+                case "role" -> participant.setRole(parser.getString());
+                case "teamPosition" -> participant.setTeamPosition(parser.getString());
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.lol.mastery_dashboard.util;
 
+import java.util.List;
+
 public class RegionMapper {
+    public static final List<String> PLATFORM_REGIONS = List.of(
+            "NA1", "BR1", "LA1", "LA2", "KR", "JP1", "EUW1", "EUN1", "TR1", "RU", "OC1"
+    );
+
+    public static final List<String> REGIONAL_ROUTES = List.of("americas", "asia", "europe");
+
     public static String getRegionalRoute(String platformRegion){
         return switch (platformRegion.toUpperCase()){
             case "NA1", "BR1", "LA1", "LA2" -> "americas";
@@ -9,9 +17,4 @@ public class RegionMapper {
             default -> "americas";
         };
     }
-
-    public static String getMatchApiUrl(String platformRegion) {
-        String region = getRegionalRoute(platformRegion);
-        return "https://" + region + ".api.riotgames.com";
-    }
 }
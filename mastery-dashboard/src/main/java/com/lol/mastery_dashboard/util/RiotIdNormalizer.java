@@ -0,0 +1,20 @@
+package com.lol.mastery_dashboard.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/*
+Riot IDs are matched case-insensitively, so "Faker#KR1" and "faker#kr1" are the same player.
+The normalized form is what summoners are indexed and cached by.
+ */
+
+public class RiotIdNormalizer {
+
+    public static String key(String gameName, String tagLine){
+        return normalize(gameName) + "#" + normalize(tagLine);
+    }
+
+    private static String normalize(String part){
+        return Normalizer.normalize(part.trim(), Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+}
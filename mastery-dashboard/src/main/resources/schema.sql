@@ -0,0 +1,152 @@
+-- Runs on every startup (spring.sql.init.mode=always), so everything here must be idempotent.
+-- Hibernate only validates the schema, it never changes it.
+
+CREATE TABLE IF NOT EXISTS summoners (
+    puuid           VARCHAR(255) PRIMARY KEY,
+    game_name       VARCHAR(255) NOT NULL,
+    tag_line        VARCHAR(255) NOT NULL,
+    region          VARCHAR(255) NOT NULL,
+    profile_icon_id INTEGER,
+    summoner_level  BIGINT,
+    last_updated    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS champion_mastery (
+    id                               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    puuid                            VARCHAR(255) NOT NULL REFERENCES summoners (puuid),
+    champion_id                      INTEGER      NOT NULL,
+    champion_level                   INTEGER      NOT NULL,
+    champion_points                  BIGINT       NOT NULL,
+    champion_points_since_last_level INTEGER,
+    champion_points_until_next_level INTEGER,
+    chest_granted                    BOOLEAN      NOT NULL,
+    tokens_earned                    INTEGER,
+    last_play_time                   BIGINT
+);
+
+-- Case-insensitive Riot ID lookups, rows stored before the column existed are backfilled once
+ALTER TABLE summoners ADD COLUMN IF NOT EXISTS riot_id_key VARCHAR(255);
+
+UPDATE summoners
+SET riot_id_key = lower(normalize(trim(game_name), NFKC)) || '#' || lower(normalize(trim(tag_line), NFKC))
+WHERE riot_id_key IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_summoners_riot_id_key_region
+    ON summoners (riot_id_key, region);
+
+-- One row per champion per player, the upsert in ChampionMasteryRepositoryImpl conflicts on it.
+-- Duplicates left by the old delete + insert refresh are dropped first, only until the index exists.
+DELETE FROM champion_mastery older
+    USING champion_mastery newer
+WHERE older.puuid = newer.puuid
+  AND older.champion_id = newer.champion_id
+  AND older.id < newer.id
+  AND NOT EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = 'uk_champion_mastery_puuid_champion');
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_champion_mastery_puuid_champion
+    ON champion_mastery (puuid, champion_id);
+
+-- Server-side sorting of a player's masteries, champion_id breaks ties so pages stay stable.
+-- Ascending sorts flip every column and read the same index backwards.
+CREATE INDEX IF NOT EXISTS idx_champion_mastery_puuid_points
+    ON champion_mastery (puuid, champion_points DESC, champion_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_champion_mastery_puuid_level
+    ON champion_mastery (puuid, champion_level DESC, champion_points DESC, champion_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_champion_mastery_puuid_last_play
+    ON champion_mastery (puuid, last_play_time DESC NULLS LAST, champion_id DESC);
+
+-- Finished matches, fetched from Riot once and kept for good
+CREATE TABLE IF NOT EXISTS matches (
+    match_id      VARCHAR(255) PRIMARY KEY,
+    game_creation BIGINT       NOT NULL,
+    game_duration BIGINT       NOT NULL,
+    game_mode     VARCHAR(255),
+    queue_id      INTEGER,
+    stored_at     TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS match_participants (
+    match_id               VARCHAR(255) NOT NULL REFERENCES matches (match_id),
+    puuid                  VARCHAR(255) NOT NULL,
+    champion_id            INTEGER      NOT NULL,
+    champion_name          VARCHAR(255),
+    kills                  INTEGER,
+    deaths                 INTEGER,
+    assists                INTEGER,
+    win                    BOOLEAN,
+    champ_level            INTEGER,
+    total_minions_killed   INTEGER,
+    neutral_minions_killed INTEGER,
+    gold_earned            INTEGER,
+    lane                   VARCHAR(255),
+    role                   VARCHAR(255),
+    team_position          VARCHAR(255),
+    PRIMARY KEY (match_id, puuid)
+);
+
+CREATE INDEX IF NOT EXISTS idx_match_participants_puuid_champion
+    ON match_participants (puuid, champion_id);
+
+-- Incremental match ID sync: per player cursor plus the locally kept, ordered ID list
+CREATE TABLE IF NOT EXISTS match_id_sync_state (
+    puuid             VARCHAR(255) PRIMARY KEY,
+    region            VARCHAR(255) NOT NULL,
+    synced_through    BIGINT       NOT NULL,
+    anchor_time       BIGINT       NOT NULL,
+    backfill_offset   INTEGER      NOT NULL,
+    history_exhausted BOOLEAN      NOT NULL,
+    last_synced       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS match_id_index (
+    puuid        VARCHAR(255) NOT NULL,
+    match_id     VARCHAR(255) NOT NULL,
+    match_number BIGINT       NOT NULL,
+    PRIMARY KEY (puuid, match_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_match_id_index_puuid_number
+    ON match_id_index (puuid, match_number DESC);
+
+-- Per player, per champion totals over every stored game, maintained as matches are stored
+CREATE TABLE IF NOT EXISTS champion_match_stats (
+    puuid              VARCHAR(255)     NOT NULL,
+    champion_id        INTEGER          NOT NULL,
+    champion_name      VARCHAR(255),
+    games              INTEGER          NOT NULL,
+    wins               INTEGER          NOT NULL,
+    kills              BIGINT           NOT NULL,
+    deaths             BIGINT           NOT NULL,
+    assists            BIGINT           NOT NULL,
+    creep_score        BIGINT           NOT NULL,
+    gold_earned        BIGINT           NOT NULL,
+    duration_seconds   BIGINT           NOT NULL,
+    kda_sum            DOUBLE PRECISION NOT NULL,
+    last_game_creation BIGINT,
+    PRIMARY KEY (puuid, champion_id)
+);
+
+-- Seed totals from games stored before the table existed, only while it is still empty
+INSERT INTO champion_match_stats (puuid, champion_id, champion_name, games, wins, kills, deaths, assists,
+                                  creep_score, gold_earned, duration_seconds, kda_sum, last_game_creation)
+SELECT p.puuid,
+       p.champion_id,
+       MAX(p.champion_name),
+       COUNT(*),
+       SUM(CASE WHEN p.win THEN 1 ELSE 0 END),
+       SUM(COALESCE(p.kills, 0)),
+       SUM(COALESCE(p.deaths, 0)),
+       SUM(COALESCE(p.assists, 0)),
+       SUM(COALESCE(p.total_minions_killed, 0) + COALESCE(p.neutral_minions_killed, 0)),
+       SUM(COALESCE(p.gold_earned, 0)),
+       SUM(m.game_duration),
+       SUM(ROUND(CAST(COALESCE(p.kills, 0) + COALESCE(p.assists, 0) AS NUMERIC)
+                 / GREATEST(COALESCE(p.deaths, 0), 1), 2)),
+       MAX(m.game_creation)
+FROM match_participants p
+JOIN matches m ON m.match_id = p.match_id
+WHERE NOT EXISTS (SELECT 1 FROM champion_match_stats)
+GROUP BY p.puuid, p.champion_id
+ON CONFLICT (puuid, champion_id) DO NOTHING;
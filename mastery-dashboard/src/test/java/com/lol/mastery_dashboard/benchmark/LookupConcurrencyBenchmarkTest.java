@@ -0,0 +1,148 @@
+package com.lol.mastery_dashboard.benchmark;
+
+import com.lol.mastery_dashboard.config.RiotApiProperties;
+import com.lol.mastery_dashboard.config.RiotWebClientRegistry;
+import com.lol.mastery_dashboard.dto.riot.AccountDto;
+import com.lol.mastery_dashboard.service.RiotApiMetrics;
+import com.lol.mastery_dashboard.service.RiotApiService;
+import com.lol.mastery_dashboard.service.RiotRateLimiter;
+import com.lol.mastery_dashboard.support.RiotApiStub;
+import com.lol.mastery_dashboard.support.RiotApiStub.StubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+2,000 concurrent summoner lookups (account, summoner and mastery calls) against a stub Riot server
+with 50ms of latency per call, once on a 200 thread platform pool (Tomcat's default) and once on
+virtual threads. Prints throughput and the peak number of live platform threads.
+
+Run with: mvn test -Pbenchmark
+ */
+
+@Tag("benchmark")
+class LookupConcurrencyBenchmarkTest {
+
+    private static final int LOOKUPS = 2_000;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(50);
+
+    private RiotApiStub stub;
+    private RiotRateLimiter rateLimiter;
+    private RiotWebClientRegistry clients;
+    private RiotApiService riotApiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new RiotApiStub();
+        stub.route("/riot/account").respond(StubResponse.json(
+                "{\"puuid\":\"bench-puuid\",\"gameName\":\"Bench\",\"tagLine\":\"NA1\"}").withDelay(UPSTREAM_LATENCY));
+        stub.route("/lol/summoner").respond(StubResponse.json(
+                "{\"puuid\":\"bench-puuid\",\"profileIconId\":1,\"summonerLevel\":300}").withDelay(UPSTREAM_LATENCY));
+        stub.route("/lol/champion-mastery").respond(StubResponse.json(
+                "[{\"championId\":157,\"championLevel\":7,\"championPoints\":250000}]").withDelay(UPSTREAM_LATENCY));
+
+        RiotApiProperties properties = new RiotApiProperties();
+        properties.setKey("bench-key");
+        properties.setAccountUrl(stub.baseUrl());
+        properties.setSummonerUrl(stub.baseUrl());
+        // The JDK stub server closes idle keep-alive connections beyond 200, stay under that
+        properties.getConnection().setMaxConnections(150);
+        properties.getConnection().setPendingAcquireMaxCount(-1);
+        properties.getConnection().setPendingAcquireTimeout(Duration.ofSeconds(60));
+        properties.getRateLimit().setAppLimits("1000000:1");
+
+        rateLimiter = new RiotRateLimiter(properties);
+        clients = new RiotWebClientRegistry(properties, WebClient.builder(), rateLimiter,
+                new RiotApiMetrics(new SimpleMeterRegistry()));
+        riotApiService = new RiotApiService(clients);
+
+        // Warm up connections and JIT so both runs start from the same place
+        run(Executors.newVirtualThreadPerTaskExecutor(), 200);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clients.destroy();
+        rateLimiter.destroy();
+        stub.close();
+    }
+
+    @Test
+    void platformPoolVersusVirtualThreads() throws Exception {
+        Result platform = run(Executors.newFixedThreadPool(200), LOOKUPS);
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(), LOOKUPS);
+
+        System.out.printf("%n%-18s %10s %12s %22s%n", "mode", "elapsed", "lookups/s", "peak platform threads");
+        System.out.println(platform.format("platform (200)"));
+        System.out.println(virtual.format("virtual"));
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private Result run(ExecutorService executor, int lookups) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger peakThreads = new AtomicInteger(threads.getThreadCount());
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (sampling.get()) {
+                peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> results = new ArrayList<>(lookups);
+            for (int i = 0; i < lookups; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        AccountDto account = riotApiService.getAccountByRiotId("Bench", "NA1");
+                        riotApiService.getSummonerByPuuid(account.getPuuid(), "NA1");
+                        riotApiService.getChampionMasteries(account.getPuuid(), "NA1");
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(2, TimeUnit.MINUTES);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        sampling.set(false);
+        sampler.join();
+        return new Result(lookups, elapsedNanos, peakThreads.get(), failures.get());
+    }
+
+    private record Result(int lookups, long elapsedNanos, int peakPlatformThreads, int failures) {
+
+        String format(String mode) {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%-18s %9.2fs %12.0f %22d", mode, seconds, lookups / seconds, peakPlatformThreads);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.lol.mastery_dashboard.benchmark;
+
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import com.lol.mastery_dashboard.util.MatchDtoDecoder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.json.JacksonJsonDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Bytes allocated and time taken to decode one match-v5 payload (~115KB, 10 participants with
+challenges, perks and missions), with Spring's Jackson decoder as used by bodyToMono(MatchDto.class)
+and with MatchDtoDecoder. The body arrives in 8KB chunks like it would off the socket.
+
+Run with: mvn test -Pbenchmark
+ */
+
+@Tag("benchmark")
+class MatchDecodingBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void streamingDecoderAllocatesLessPerMatch() throws IOException {
+        byte[] payload;
+        try (InputStream in = getClass().getResourceAsStream("/riot/match-v5.json")) {
+            payload = in.readAllBytes();
+        }
+
+        JacksonJsonDecoder jacksonDecoder = new JacksonJsonDecoder();
+        jacksonDecoder.setMaxInMemorySize(-1);
+        ResolvableType type = ResolvableType.forClass(MatchDto.class);
+
+        Result databind = measure("bodyToMono(MatchDto)", payload,
+                body -> jacksonDecoder.decodeToMono(body, type, null, null).cast(MatchDto.class));
+        Result streaming = measure("MatchDtoDecoder", payload, MatchDtoDecoder::decode);
+
+        System.out.printf("Match decode, %d iterations of a %,d byte payload%n", ITERATIONS, payload.length);
+        databind.print();
+        streaming.print();
+
+        assertThat(streaming.bytesPerMatch()).isLessThan(databind.bytesPerMatch());
+    }
+
+    private Result measure(String name, byte[] payload, Function<Flux<DataBuffer>, Mono<MatchDto>> decoder) {
+        for (int i = 0; i < WARMUP; i++) {
+            decoder.apply(chunks(payload)).block();
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            MatchDto match = decoder.apply(chunks(payload)).block();
+            assertThat(match.getInfo().getParticipants()).hasSize(10);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(name, allocated / ITERATIONS, elapsed / ITERATIONS / 1_000.0);
+    }
+
+    // Wraps slices of the payload, so the copies themselves aren't counted against either decoder
+    private static Flux<DataBuffer> chunks(byte[] payload) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, payload.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    ByteBuffer.wrap(payload, offset, length).slice()));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private record Result(String name, long bytesPerMatch, double microsPerMatch) {
+        void print() {
+            System.out.printf("  %-22s %,10d bytes/match  %8.1f us/match%n", name, bytesPerMatch, microsPerMatch);
+        }
+    }
+}
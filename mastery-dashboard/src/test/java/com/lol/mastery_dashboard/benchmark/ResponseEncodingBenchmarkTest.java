@@ -0,0 +1,133 @@
+package com.lol.mastery_dashboard.benchmark;
+
+import com.lol.mastery_dashboard.dto.response.ChampionMasteryResponse;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+Bytes on the wire and CPU time to encode the summoner response of a player with every champion
+mastered (170 masteries), for each encoding the API negotiates through Accept, with and without
+the gzip step server.compression adds on top.
+
+Run with: mvn test -Pbenchmark
+ */
+
+@Tag("benchmark")
+class ResponseEncodingBenchmarkTest {
+
+    private static final int CHAMPIONS = 170;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Test
+    void binaryEncodingsAreSmallerThanJson() {
+        SummonerResponse response = summoner();
+
+        List<Result> results = new ArrayList<>();
+        for (Encoding encoding : List.of(
+                new Encoding("application/json", JsonMapper.builder().build()),
+                new Encoding("application/cbor", CBORMapper.builder().build()),
+                new Encoding("application/x-jackson-smile", SmileMapper.builder().build()))) {
+            results.add(measure(encoding, response, false));
+            results.add(measure(encoding, response, true));
+        }
+
+        System.out.printf("Summoner response with %d masteries, %d iterations%n", CHAMPIONS, ITERATIONS);
+        results.forEach(Result::print);
+
+        // Each encoding is measured plain then gzipped, JSON first
+        int jsonBytes = results.get(0).bytes();
+        assertThat(results.get(2).bytes()).isLessThan(jsonBytes);
+        assertThat(results.get(4).bytes()).isLessThan(jsonBytes);
+        assertThat(results.get(1).bytes()).isLessThan(jsonBytes);
+    }
+
+    private Result measure(Encoding encoding, SummonerResponse response, boolean gzip) {
+        byte[] body = null;
+        for (int i = 0; i < WARMUP; i++) {
+            body = encode(encoding.mapper(), response, gzip);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body = encode(encoding.mapper(), response, gzip);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(encoding.mediaType() + (gzip ? " + gzip" : ""), body.length, elapsed / ITERATIONS / 1_000.0);
+    }
+
+    private static byte[] encode(ObjectMapper mapper, SummonerResponse response, boolean gzip) {
+        byte[] body = mapper.writeValueAsBytes(response);
+        if (!gzip) {
+            return body;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            compressed.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static SummonerResponse summoner() {
+        // Fixed seed so every run encodes the same payload
+        Random random = new Random(CHAMPIONS);
+        List<ChampionMasteryResponse> masteries = new ArrayList<>(CHAMPIONS);
+        for (int i = 0; i < CHAMPIONS; i++) {
+            int level = 1 + random.nextInt(10);
+            boolean chestGranted = random.nextBoolean();
+            masteries.add(ChampionMasteryResponse.builder()
+                    .championId(i + 1)
+                    .championLevel(level)
+                    .championPoints(level * 20_000L + random.nextInt(20_000))
+                    .championPointsSinceLastLevel(random.nextInt(20_000))
+                    .championPointsUntilNextLevel(random.nextInt(20_000))
+                    .chestGranted(chestGranted)
+                    .tokensEarned(random.nextInt(3))
+                    .lastPlayTime(1_700_000_000_000L + random.nextInt(1_000_000))
+                    .isChestAvailable(!chestGranted)
+                    .build());
+        }
+        return SummonerResponse.builder()
+                .puuid("player-puuid")
+                .gameName("Faker")
+                .tagLine("KR1")
+                .region("KR")
+                .profileIconId(4568)
+                .summonerLevel(500L)
+                .lastUpdated(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .stale(false)
+                .championMasteries(masteries)
+                .totalMasteryScore(masteries.stream().mapToInt(ChampionMasteryResponse::getChampionLevel).sum())
+                .chestsAvailable((int) masteries.stream().filter(ChampionMasteryResponse::getIsChestAvailable).count())
+                .masteryChanges(List.of())
+                .build();
+    }
+
+    private record Encoding(String mediaType, ObjectMapper mapper) {
+    }
+
+    private record Result(String name, int bytes, double microsPerResponse) {
+        void print() {
+            System.out.printf("  %-36s %,8d bytes  %8.1f us/response%n", name, bytes, microsPerResponse);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lol.mastery_dashboard.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private final JdbcTemplate replica = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, properties(), meterRegistry);
+
+    @Test
+    void replicaIsNotUsedBeforeTheFirstCheck() {
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("riot.replica.lag").gauge().value()).isNaN();
+    }
+
+    @Test
+    void replicaWithinMaxLagIsUsed() {
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.4);
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(meterRegistry.get("riot.replica.lag").gauge().value()).isEqualTo(0.4);
+    }
+
+    @Test
+    void laggingReplicaIsNotUsedUntilItCatchesUp() {
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(3.0, 0.0);
+
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isFalse();
+
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void unreachableReplicaIsNotUsed() {
+        when(replica.queryForObject(anyString(), eq(Double.class)))
+                .thenReturn(0.0)
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        monitor.check();
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("riot.replica.lag").gauge().value()).isNaN();
+    }
+
+    @Test
+    void replicaThatStoppedStreamingIsNotUsed() {
+        // A standby without a streaming WAL receiver has no lag the query can measure
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.0, (Double) null);
+
+        monitor.check();
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("riot.replica.lag").gauge().value()).isNaN();
+    }
+
+    private static ReplicaProperties properties() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(1));
+        return properties;
+    }
+}
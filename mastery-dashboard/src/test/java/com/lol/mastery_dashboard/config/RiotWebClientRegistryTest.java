@@ -0,0 +1,48 @@
+package com.lol.mastery_dashboard.config;
+
+import com.lol.mastery_dashboard.service.RiotApiMetrics;
+import com.lol.mastery_dashboard.service.RiotRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RiotWebClientRegistryTest {
+
+    private final RiotWebClientRegistry clients = registry();
+
+    @AfterEach
+    void tearDown() {
+        clients.destroy();
+    }
+
+    @Test
+    void platformsShareTheClientBuiltAtStartup() {
+        assertThat(clients.platform("na1")).isSameAs(clients.platform("NA1"));
+        assertThat(clients.regional("EUW1")).isSameAs(clients.regional("EUN1"));
+    }
+
+    @Test
+    void unknownRegionsAreRejected() {
+        assertThatThrownBy(() -> clients.platform("junk1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("junk1");
+        assertThatThrownBy(() -> clients.regional("junk1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Routing values aren't platforms
+        assertThatThrownBy(() -> clients.regional("americas"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RiotWebClientRegistry registry() {
+        RiotApiProperties properties = new RiotApiProperties();
+        properties.setKey("test-key");
+        properties.setAccountUrl("https://americas.api.riotgames.com");
+        properties.setSummonerUrl("https://{region}.api.riotgames.com");
+        return new RiotWebClientRegistry(properties, WebClient.builder(), new RiotRateLimiter(properties),
+                new RiotApiMetrics(new SimpleMeterRegistry()));
+    }
+}
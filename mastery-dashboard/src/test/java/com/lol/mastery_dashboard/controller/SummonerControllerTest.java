@@ -0,0 +1,255 @@
+package com.lol.mastery_dashboard.controller;
+
+import com.lol.mastery_dashboard.config.HttpCacheProperties;
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.dto.request.MasteryQuery;
+import com.lol.mastery_dashboard.dto.response.MatchHistoryResponse;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.service.MatchService;
+import com.lol.mastery_dashboard.service.SummonerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SummonerController.class)
+@Import({HttpCacheProperties.class, MatchFetchProperties.class, NoOpCacheManager.class})
+class SummonerControllerTest {
+
+    private static final String SUMMONER_URL = "/api/summoners/Player/NA1?region=na1";
+    private static final String MATCHES_URL = "/api/summoners/Player/NA1/champion/157/matches?region=na1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SummonerService summonerService;
+
+    @MockitoBean
+    private MatchService matchService;
+
+    @MockitoBean
+    private ExecutorService matchStreamExecutor;
+
+    @Autowired
+    private SummonerController summonerController;
+
+    @BeforeEach
+    void setUp() {
+        when(summonerService.getPuuidOnly("Player", "NA1", "na1")).thenReturn("player-puuid");
+    }
+
+    @Test
+    void summonerResponseCarriesValidatorAndCachePolicy() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(false));
+
+        mockMvc.perform(get(SUMMONER_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, stale-while-revalidate=300"));
+    }
+
+    @Test
+    void unchangedSummonerIsNotSentAgain() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(false));
+        String etag = mockMvc.perform(get(SUMMONER_URL)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(SUMMONER_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void refreshedSummonerGetsANewValidator() throws Exception {
+        SummonerResponse before = summoner(false);
+        SummonerResponse after = summoner(false);
+        after.setLastUpdated(before.getLastUpdated().plusMinutes(6));
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(before, after);
+        String etag = mockMvc.perform(get(SUMMONER_URL)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(SUMMONER_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void staleSummonerHasToBeRevalidatedRightAway() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(true));
+
+        mockMvc.perform(get(SUMMONER_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, public, stale-while-revalidate=300"));
+    }
+
+    @Test
+    void matchHistoryValidatorFollowsItsContent() throws Exception {
+        when(matchService.getChampionMatchHistory(eq("player-puuid"), anyString(), eq(157), anyInt()))
+                .thenReturn(history("NA1_2"), history("NA1_2"), history("NA1_3"));
+        String etag = mockMvc.perform(get(MATCHES_URL))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, stale-while-revalidate=600"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(MATCHES_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(MATCHES_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void matchHistoryValidatorIgnoresTheTimeZoneAndFollowsCareerTotals() throws Exception {
+        MatchHistoryResponse first = history("NA1_2");
+        MatchHistoryResponse otherZone = history("NA1_2");
+        otherZone.getRecentMatches().getFirst().setGameDate(LocalDateTime.of(2026, 1, 1, 9, 0));
+        MatchHistoryResponse moreStored = history("NA1_2");
+        moreStored.setCareerStats(MatchHistoryResponse.CareerStats.builder().totalGames(42).build());
+        when(matchService.getChampionMatchHistory(eq("player-puuid"), anyString(), eq(157), anyInt()))
+                .thenReturn(first, otherZone, moreStored);
+        String etag = mockMvc.perform(get(MATCHES_URL)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(MATCHES_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(MATCHES_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void eachEncodingIsValidatedOnItsOwn() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(false));
+        when(matchService.getChampionMatchHistory(eq("player-puuid"), anyString(), eq(157), anyInt())).thenReturn(history("NA1_2"));
+
+        for (String url : List.of(SUMMONER_URL, MATCHES_URL)) {
+            String json = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            String cbor = mockMvc.perform(get(url).accept("application/cbor"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // Weak, Tomcat only compresses responses without a strong validator
+            assertThat(json).startsWith("W/\"");
+            assertThat(cbor).isNotEqualTo(json);
+            mockMvc.perform(get(url).accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, json))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(url).accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, cbor))
+                    .andExpect(status().isNotModified());
+        }
+    }
+
+    @Test
+    void negotiatedTypeFollowsAcceptQuality() {
+        assertThat(SummonerController.negotiatedType(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(SummonerController.negotiatedType("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(SummonerController.negotiatedType("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(SummonerController.negotiatedType("application/json;q=0.5, application/x-jackson-smile").toString())
+                .isEqualTo("application/x-jackson-smile");
+        assertThat(SummonerController.negotiatedType("not a type")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void summonerIsEncodedAsRequestedByAccept() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(false));
+
+        byte[] cbor = mockMvc.perform(get(SUMMONER_URL).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get(SUMMONER_URL).accept("application/x-jackson-smile"))
+                .andExpect(content().contentType("application/x-jackson-smile"));
+        mockMvc.perform(get(SUMMONER_URL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        assertThat(CBORMapper.builder().build().readValue(cbor, SummonerResponse.class)).isEqualTo(summoner(false));
+    }
+
+    @Test
+    void masteryQueryIsTakenFromTheQueryString() throws Exception {
+        when(summonerService.findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), any())).thenReturn(summoner(false));
+
+        mockMvc.perform(get(SUMMONER_URL + "&sort=level-desc&level=7&chestAvailable=true&page=2&limit=20"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<MasteryQuery> query = ArgumentCaptor.forClass(MasteryQuery.class);
+        verify(summonerService).findOrCreateSummoner(eq("Player"), eq("NA1"), eq("NA1"), query.capture());
+        assertThat(query.getValue()).isEqualTo(new MasteryQuery("level-desc", 7, true, 2, 20));
+    }
+
+    @Test
+    void invalidMasteryQueryIsRejected() throws Exception {
+        mockMvc.perform(get(SUMMONER_URL + "&sort=name-asc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(SUMMONER_URL + "&limit=1000"))
+                .andExpect(status().isBadRequest());
+
+        verify(summonerService, never()).findOrCreateSummoner(any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamThatTimedOutIsTreatedAsClosed() {
+        when(matchService.streamChampionMatchHistory(eq("player-puuid"), eq("na1"), eq(157), eq(10), any()))
+                .thenAnswer(inv -> {
+                    inv.getArgument(4, Consumer.class).accept(history("NA1_1").getRecentMatches().getFirst());
+                    return history("NA1_1");
+                });
+
+        SseEmitter emitter = summonerController.streamChampionMatches("Player", "NA1", 157, "na1", 10);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(matchStreamExecutor).execute(task.capture());
+        // The emitter timed out before the first match was resolved
+        emitter.complete();
+
+        assertThatCode(() -> task.getValue().run()).doesNotThrowAnyException();
+    }
+
+    private static SummonerResponse summoner(boolean stale) {
+        return SummonerResponse.builder()
+                .puuid("player-puuid")
+                .gameName("Player")
+                .tagLine("NA1")
+                .region("NA1")
+                .lastUpdated(LocalDateTime.of(2026, 10, 1, 12, 0))
+                .stale(stale)
+                .championMasteries(List.of())
+                .masteryChanges(List.of())
+                .build();
+    }
+
+    private static MatchHistoryResponse history(String latestMatchId) {
+        MatchHistoryResponse.MatchSummary summary = MatchHistoryResponse.MatchSummary.builder()
+                .matchId(latestMatchId)
+                .build();
+        return MatchHistoryResponse.builder()
+                .championId(157)
+                .championName("Yasuo")
+                .recentMatches(List.of(summary))
+                .build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.lol.mastery_dashboard.load;
+
+import com.lol.mastery_dashboard.support.RiotApiStub;
+import com.lol.mastery_dashboard.support.RiotApiStub.RecordedRequest;
+import com.lol.mastery_dashboard.support.RiotApiStub.StubResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+End-to-end load test: the whole application on a random port, embedded Postgres and a local Riot
+stand-in serving the fixtures in src/test/resources/riot with latency, jitter and random 429s.
+Drives the summoner and champion match endpoints with a skewed mix of players (a few are looked
+up far more than the rest) and prints throughput, p50/p99 latency and calls per Riot endpoint.
+
+Run with: mvn test -Pload
+Tune with -Dload.requests, load.concurrency, load.players, load.match-share, load.latency-ms,
+load.jitter-ms, load.throttle-rate and load.app-limits, e.g. mvn test -Pload -Dload.concurrency=200
+ */
+
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SummonerLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final int PLAYERS = Integer.getInteger("load.players", 200);
+    private static final double MATCH_SHARE = Double.parseDouble(System.getProperty("load.match-share", "0.2"));
+    private static final Duration LATENCY = Duration.ofMillis(Long.getLong("load.latency-ms", 40));
+    private static final Duration JITTER = Duration.ofMillis(Long.getLong("load.jitter-ms", 40));
+    private static final double THROTTLE_RATE = Double.parseDouble(System.getProperty("load.throttle-rate", "0.01"));
+    // A production key's limits, the stub doesn't send X-App-Rate-Limit so these stay in force
+    private static final String APP_LIMITS = System.getProperty("load.app-limits", "500:10,30000:600");
+
+    // Each player has this many games on record, ids are NA1_<player * 10000 + n>
+    private static final int MATCHES_PER_PLAYER = 40;
+    private static final int CHAMPION_ID = 157;
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final RiotApiStub RIOT = startRiot();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.level.root", () -> "WARN");
+        registry.add("riot.api.key", () -> "load-test-key");
+        registry.add("riot.api.account-url", RIOT::baseUrl);
+        registry.add("riot.api.summoner-url", RIOT::baseUrl);
+        // The JDK stub server closes idle keep-alive connections beyond 200, stay under that
+        registry.add("riot.api.connection.max-connections", () -> "150");
+        registry.add("riot.api.rate-limit.app-limits", () -> APP_LIMITS);
+        // Background pre-warming would add upstream calls nobody asked for
+        registry.add("riot.prewarm.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        RIOT.close();
+        POSTGRES.close();
+    }
+
+    @Test
+    void summonerAndMatchLookupsUnderLoad() throws Exception {
+        List<String> plan = plan();
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < plan.size()) {
+                        String path = plan.get(index);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                                .timeout(Duration.ofSeconds(60))
+                                .GET()
+                                .build();
+
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        stats.computeIfAbsent(kind(path), Stats::new).record(System.nanoTime() - sent, status);
+                    }
+                    return null;
+                });
+            }
+            workers.shutdown();
+            assertThat(workers.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Load test: %,d requests, %d concurrent, %d players, %dms + 0-%dms upstream, %.1f%% 429s%n",
+                REQUESTS, CONCURRENCY, PLAYERS, LATENCY.toMillis(), JITTER.toMillis(), THROTTLE_RATE * 100);
+        System.out.printf("  throughput      %,.0f requests/s over %.1fs%n", REQUESTS / seconds, seconds);
+        stats.values().stream().sorted((a, b) -> a.name.compareTo(b.name)).forEach(Stats::print);
+        System.out.printf("  upstream        account=%d summoner=%d mastery=%d match-ids=%d match=%d throttled=%d%n",
+                RIOT.requestCount("/riot/account/"),
+                RIOT.requestCount("/lol/summoner/"),
+                RIOT.requestCount("/lol/champion-mastery/"),
+                RIOT.requestCount("/lol/match/v5/matches/by-puuid/"),
+                RIOT.requestCount("/lol/match/v5/matches/") - RIOT.requestCount("/lol/match/v5/matches/by-puuid/"),
+                RIOT.throttledCount());
+
+        long completed = stats.values().stream().mapToLong(s -> s.count.sum()).sum();
+        long failed = stats.values().stream().mapToLong(s -> s.failed.sum()).sum();
+        assertThat(completed).isEqualTo(REQUESTS);
+        assertThat(failed).isZero();
+    }
+
+    /*
+    Fixed seed, so every run sends the same requests in the same order.
+    Cubing a uniform value skews lookups towards low player numbers, like a few popular streamers.
+     */
+
+    private static List<String> plan() {
+        SplittableRandom random = new SplittableRandom(19);
+        List<String> plan = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int player = (int) (PLAYERS * Math.pow(random.nextDouble(), 3));
+            String summoner = "/api/summoners/Load" + player + "/NA1";
+            plan.add(random.nextDouble() < MATCH_SHARE
+                    ? summoner + "/champion/" + CHAMPION_ID + "/matches?region=na1&count=5"
+                    : summoner + "?region=na1");
+        }
+        return plan;
+    }
+
+    private static String kind(String path) {
+        return path.contains("/matches") ? "matches" : "summoner";
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RiotApiStub startRiot() {
+        try {
+            String account = fixture("account.json");
+            String summoner = fixture("summoner.json");
+            String masteries = fixture("champion-masteries.json");
+            String match = fixture("match-v5.json");
+
+            RiotApiStub stub = new RiotApiStub()
+                    .withLatency(LATENCY, JITTER)
+                    .withThrottling(THROTTLE_RATE, Duration.ofSeconds(1));
+
+            // Account-V1: /riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}
+            stub.route("/riot/account/").respondWith(request -> {
+                String[] segments = request.path().split("/");
+                String gameName = segments[segments.length - 2];
+                String tagLine = segments[segments.length - 1];
+                return StubResponse.json(account
+                        .replace("{{puuid}}", puuid(gameName.substring("Load".length())))
+                        .replace("{{gameName}}", gameName)
+                        .replace("{{tagLine}}", tagLine));
+            });
+            stub.route("/lol/summoner/").respondWith(request ->
+                    StubResponse.json(summoner.replace("{{puuid}}", request.lastSegment())));
+            stub.route("/lol/champion-mastery/").respondWith(request ->
+                    StubResponse.json(masteries.replace("{{puuid}}", request.lastSegment())));
+
+            // Match-V5 details, the fixture's player is swapped for whoever owns the match ID
+            stub.route("/lol/match/v5/matches/").respondWith(request -> {
+                String matchId = request.lastSegment();
+                long number = Long.parseLong(matchId.substring(matchId.indexOf('_') + 1));
+                return StubResponse.json(match
+                        .replace("NA1_5123456789", matchId)
+                        .replace("player-puuid", puuid(String.valueOf(number / 10_000))));
+            });
+            // Match-V5 IDs: /lol/match/v5/matches/by-puuid/{puuid}/ids, newest first
+            stub.route("/lol/match/v5/matches/by-puuid/").respondWith(SummonerLoadTest::matchIds);
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String puuid(String player) {
+        return "load-puuid-" + player;
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = SummonerLoadTest.class.getResourceAsStream("/riot/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static StubResponse matchIds(RecordedRequest request) {
+        String[] segments = request.path().split("/");
+        long player = Long.parseLong(segments[segments.length - 2].substring("load-puuid-".length()));
+        int start = Integer.parseInt(request.queryParam("start", "0"));
+        int count = Integer.parseInt(request.queryParam("count", "20"));
+
+        String ids = IntStream.range(start, Math.min(start + count, MATCHES_PER_PLAYER))
+                .mapToObj(n -> "\"NA1_" + (player * 10_000 + MATCHES_PER_PLAYER - n) + "\"")
+                .collect(Collectors.joining(","));
+        return StubResponse.json("[" + ids + "]");
+    }
+
+    private static final class Stats {
+        private final String name;
+        private final List<Long> latencies = new ArrayList<>();
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, int status) {
+            count.increment();
+            if (status != 200) {
+                failed.increment();
+            }
+            synchronized (latencies) {
+                latencies.add(nanos);
+            }
+        }
+
+        void print() {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+            System.out.printf("  %-15s n=%,d p50=%.1fms p99=%.1fms max=%.1fms failed=%d%n",
+                    name, sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6, failed.sum());
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = Math.max(0, (int) Math.ceil(p * sorted.length) - 1);
+            return sorted[index] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.lol.mastery_dashboard.repository;
+
+import com.lol.mastery_dashboard.entity.ChampionMastery;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/*
+The hand-written upsert and delete against a real Postgres, with the tables from schema.sql
+ */
+
+class ChampionMasteryRepositoryImplTest {
+
+    private static final String PUUID = "player-puuid";
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(POSTGRES.getPostgresDatabase());
+    private final ChampionMasteryRepositoryImpl repository = new ChampionMasteryRepositoryImpl(jdbcTemplate);
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM champion_mastery");
+        jdbcTemplate.update("DELETE FROM summoners");
+        jdbcTemplate.update("""
+                INSERT INTO summoners (puuid, game_name, tag_line, region, riot_id_key, last_updated)
+                VALUES (?, 'Faker', 'KR1', 'KR', 'faker#kr1', now())
+                """, PUUID);
+    }
+
+    @Test
+    void newChampionsAreInserted() {
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 100_000L), mastery(2, 5, 30_000L, null)));
+
+        assertThat(points()).containsOnly(entry(1, 100_000L), entry(2, 30_000L));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT last_play_time FROM champion_mastery WHERE champion_id = 2", Long.class)).isNull();
+    }
+
+    @Test
+    void unchangedChampionsAreNotRewritten() {
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 100_000L)));
+        String version = rowVersion(1);
+
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 100_000L)));
+
+        // xmin only changes when the row is written again
+        assertThat(rowVersion(1)).isEqualTo(version);
+    }
+
+    @Test
+    void changedChampionsAreUpdatedInPlace() {
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 100_000L), mastery(2, 5, 30_000L)));
+        String untouched = rowVersion(2);
+
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 125_000L), mastery(2, 5, 30_000L)));
+
+        assertThat(points()).containsOnly(entry(1, 125_000L), entry(2, 30_000L));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM champion_mastery", Integer.class)).isEqualTo(2);
+        assertThat(rowVersion(2)).isEqualTo(untouched);
+    }
+
+    @Test
+    void championsNoLongerListedAreDeleted() {
+        repository.upsertAll(PUUID, List.of(mastery(1, 7, 100_000L), mastery(2, 5, 30_000L), mastery(3, 1, 500L)));
+
+        int deleted = repository.deleteMissing(PUUID, List.of(1, 3));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(points()).containsOnlyKeys(1, 3);
+    }
+
+    private Map<Integer, Long> points() {
+        return jdbcTemplate.query("SELECT champion_id, champion_points FROM champion_mastery WHERE puuid = ?",
+                rs -> {
+                    Map<Integer, Long> points = new HashMap<>();
+                    while (rs.next()) {
+                        points.put(rs.getInt(1), rs.getLong(2));
+                    }
+                    return points;
+                }, PUUID);
+    }
+
+    private String rowVersion(int championId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT xmin::text FROM champion_mastery WHERE puuid = ? AND champion_id = ?",
+                String.class, PUUID, championId);
+    }
+
+    private static ChampionMastery mastery(int championId, int level, long points) {
+        return mastery(championId, level, points, 1_700_000_000_000L);
+    }
+
+    private static ChampionMastery mastery(int championId, int level, long points, Long lastPlayTime) {
+        ChampionMastery mastery = new ChampionMastery();
+        mastery.setChampionId(championId);
+        mastery.setChampionLevel(level);
+        mastery.setChampionPoints(points);
+        mastery.setChestGranted(false);
+        mastery.setLastPlayTime(lastPlayTime);
+        return mastery;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(postgres.getPostgresDatabase());
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.entity.MatchIdSyncState;
+import com.lol.mastery_dashboard.repository.MatchIdIndexRepository;
+import com.lol.mastery_dashboard.repository.MatchIdSyncStateRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchIdSyncServiceTest {
+
+    private static final String PUUID = "player-puuid";
+
+    private final RiotApiService riotApiService = mock(RiotApiService.class);
+    private final MatchIdSyncStateRepository syncStateRepository = mock(MatchIdSyncStateRepository.class);
+    private final MatchIdIndexRepository matchIdIndexRepository = mock(MatchIdIndexRepository.class);
+    private final MatchFetchProperties properties = new MatchFetchProperties();
+    private final MatchIdSyncService syncService =
+            new MatchIdSyncService(riotApiService, syncStateRepository, matchIdIndexRepository, properties);
+
+    @Test
+    void firstVisitPagesBackFromAFixedAnchor() {
+        when(syncStateRepository.findById(PUUID)).thenReturn(Optional.empty());
+        when(riotApiService.getMatchIds(eq(PUUID), eq("NA1"), isNull(), anyLong(), eq(0), eq(20)))
+                .thenReturn(List.of("NA1_3", "NA1_2", "NA1_1"));
+
+        syncService.getMatchIds(PUUID, "NA1", 0, 20);
+
+        ArgumentCaptor<MatchIdSyncState> saved = ArgumentCaptor.forClass(MatchIdSyncState.class);
+        verify(syncStateRepository).save(saved.capture());
+        assertThat(saved.getValue().getBackfillOffset()).isEqualTo(3);
+        assertThat(saved.getValue().getHistoryExhausted()).isTrue();
+        verify(riotApiService, never()).getMatchIds(any(), any(), anyLong(), isNull(), anyInt(), anyInt());
+    }
+
+    @Test
+    void repeatVisitOnlyAsksForNewerGames() {
+        long syncedThrough = 1_700_000_000L;
+        MatchIdSyncState state = new MatchIdSyncState(PUUID, "NA1", syncedThrough, syncedThrough - 500, 40, false,
+                LocalDateTime.now().minusMinutes(10));
+        when(syncStateRepository.findById(PUUID)).thenReturn(Optional.of(state));
+        when(matchIdIndexRepository.countByPuuid(PUUID)).thenReturn(40L);
+        when(riotApiService.getMatchIds(eq(PUUID), eq("NA1"), anyLong(), isNull(), eq(0), eq(100)))
+                .thenReturn(List.of("NA1_50"));
+
+        syncService.getMatchIds(PUUID, "NA1", 0, 20);
+
+        long expectedStart = syncedThrough - properties.getSyncOverlap().toSeconds();
+        verify(riotApiService).getMatchIds(PUUID, "NA1", expectedStart, null, 0, 100);
+        verify(riotApiService, never()).getMatchIds(any(), any(), isNull(), anyLong(), anyInt(), anyInt());
+        assertThat(state.getSyncedThrough()).isGreaterThan(syncedThrough);
+    }
+
+    @Test
+    void walkingFurtherBackContinuesFromTheBackfillOffset() {
+        long anchor = 1_700_000_000L;
+        MatchIdSyncState state = new MatchIdSyncState(PUUID, "NA1", anchor, anchor, 20, false, LocalDateTime.now());
+        when(syncStateRepository.findById(PUUID)).thenReturn(Optional.of(state));
+        when(matchIdIndexRepository.countByPuuid(PUUID)).thenReturn(20L);
+        when(riotApiService.getMatchIds(PUUID, "NA1", null, anchor, 20, 10))
+                .thenReturn(List.of("NA1_10", "NA1_9", "NA1_8", "NA1_7", "NA1_6", "NA1_5", "NA1_4", "NA1_3", "NA1_2", "NA1_1"));
+
+        syncService.getMatchIds(PUUID, "NA1", 20, 10);
+
+        assertThat(state.getBackfillOffset()).isEqualTo(30);
+        assertThat(state.getHistoryExhausted()).isFalse();
+    }
+
+    @Test
+    void walkingFurtherBackDoesNotCountAsASyncOfNewerGames() {
+        long anchor = 1_700_000_000L;
+        LocalDateTime lastSynced = LocalDateTime.now().minusSeconds(30);
+        MatchIdSyncState state = new MatchIdSyncState(PUUID, "NA1", anchor, anchor, 20, false, lastSynced);
+        when(syncStateRepository.findById(PUUID)).thenReturn(Optional.of(state));
+        when(matchIdIndexRepository.countByPuuid(PUUID)).thenReturn(20L);
+        when(riotApiService.getMatchIds(PUUID, "NA1", null, anchor, 20, 10)).thenReturn(List.of("NA1_10"));
+
+        syncService.getMatchIds(PUUID, "NA1", 20, 10);
+
+        assertThat(state.getLastSynced()).isEqualTo(lastSynced);
+    }
+
+    @Test
+    void concurrentFirstVisitsShareOneSync() throws Exception {
+        AtomicInteger riotCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(syncStateRepository.findById(PUUID)).thenReturn(Optional.empty());
+        when(riotApiService.getMatchIds(eq(PUUID), eq("NA1"), isNull(), anyLong(), eq(0), eq(20)))
+                .thenAnswer(invocation -> {
+                    riotCalls.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of("NA1_1");
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> syncService.getMatchIds(PUUID, "NA1", 0, 20)));
+            }
+            // Let every caller join the running sync before it completes
+            while (riotCalls.get() == 0) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<List<String>> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(riotCalls).hasValue(1);
+        verify(syncStateRepository, times(1)).save(any());
+    }
+
+    @Test
+    void ordersByTheNumericPartOfTheMatchId() {
+        assertThat(MatchIdSyncService.matchNumber("EUW1_7012345678")).isEqualTo(7012345678L);
+        assertThat(MatchIdSyncService.matchNumber("garbage")).isZero();
+    }
+}
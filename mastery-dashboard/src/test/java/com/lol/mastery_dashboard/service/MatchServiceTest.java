@@ -0,0 +1,230 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.MatchFetchProperties;
+import com.lol.mastery_dashboard.dto.response.MatchHistoryResponse;
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import com.lol.mastery_dashboard.entity.ChampionMatchStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchServiceTest {
+
+    private static final String PUUID = "player-puuid";
+    private static final int CHAMPION_ID = 157;
+
+    private final RiotApiService riotApiService = mock(RiotApiService.class);
+    private final MatchStoreService matchStoreService = mock(MatchStoreService.class);
+    private final MatchIdSyncService matchIdSyncService = mock(MatchIdSyncService.class);
+    private final MatchFetchProperties properties = new MatchFetchProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private MatchService matchService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setParallelism(4);
+        properties.setRequestTimeout(Duration.ofMillis(500));
+        properties.setIncrementalSync(false);
+        executor = Executors.newFixedThreadPool(8);
+        matchService = new MatchService(riotApiService, matchStoreService, matchIdSyncService, properties, executor,
+                new RiotApiMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsMatchIdOrderWhenFetchesCompleteOutOfOrder() {
+        List<String> ids = ids(8);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            // Earlier matches take longer so they finish last
+            long delay = (ids.size() - i) * 15L;
+            String id = ids.get(i);
+            when(riotApiService.getMatchDetails(eq(id), anyString())).thenAnswer(inv -> {
+                Thread.sleep(delay);
+                return match(id, CHAMPION_ID);
+            });
+        }
+
+        MatchHistoryResponse response = matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10);
+
+        assertThat(response.getRecentMatches())
+                .extracting(MatchHistoryResponse.MatchSummary::getMatchId)
+                .containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void stopsFetchingOnceEnoughChampionMatchesAreFound() {
+        List<String> ids = ids(30);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        when(riotApiService.getMatchDetails(anyString(), anyString()))
+                .thenAnswer(inv -> match(inv.getArgument(0), CHAMPION_ID));
+
+        MatchHistoryResponse response = matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 3);
+
+        assertThat(response.getRecentMatches()).hasSize(3);
+        // At most the three consumed matches plus one full window of prefetches
+        verify(riotApiService, atMost(3 + properties.getParallelism())).getMatchDetails(anyString(), anyString());
+        verify(riotApiService, never()).getMatchDetails(eq(ids.get(29)), anyString());
+    }
+
+    @Test
+    void skipsMatchesThatTimeOut() {
+        List<String> ids = ids(3);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        when(riotApiService.getMatchDetails(anyString(), anyString()))
+                .thenAnswer(inv -> match(inv.getArgument(0), CHAMPION_ID));
+        when(riotApiService.getMatchDetails(eq(ids.get(1)), anyString())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return match(ids.get(1), CHAMPION_ID);
+        });
+
+        MatchHistoryResponse response = matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10);
+
+        assertThat(response.getRecentMatches())
+                .extracting(MatchHistoryResponse.MatchSummary::getMatchId)
+                .containsExactly(ids.get(0), ids.get(2));
+    }
+
+    @Test
+    void matchesThatTimeOutAreStillStored() {
+        List<String> ids = ids(1);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        when(riotApiService.getMatchDetails(eq(ids.get(0)), anyString())).thenAnswer(inv -> {
+            Thread.sleep(1_000);
+            return match(ids.get(0), CHAMPION_ID);
+        });
+
+        MatchHistoryResponse response = matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10);
+
+        assertThat(response.getRecentMatches()).isEmpty();
+        verify(matchStoreService, timeout(2_000)).saveMatch(any());
+    }
+
+    @Test
+    void usesStoredMatchesInsteadOfCallingRiot() {
+        List<String> ids = ids(4);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        when(matchStoreService.findPlayerMatches(eq(PUUID), anyCollection()))
+                .thenReturn(Map.of(ids.get(0), match(ids.get(0), CHAMPION_ID), ids.get(2), match(ids.get(2), CHAMPION_ID)));
+        when(riotApiService.getMatchDetails(anyString(), anyString()))
+                .thenAnswer(inv -> match(inv.getArgument(0), CHAMPION_ID));
+
+        MatchHistoryResponse response = matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10);
+
+        assertThat(response.getRecentMatches())
+                .extracting(MatchHistoryResponse.MatchSummary::getMatchId)
+                .containsExactlyElementsOf(ids);
+        verify(riotApiService, never()).getMatchDetails(eq(ids.get(0)), anyString());
+        verify(riotApiService, never()).getMatchDetails(eq(ids.get(2)), anyString());
+        verify(matchStoreService, times(2)).saveMatch(any());
+
+        DistributionSummary fanOut = meterRegistry.get("riot.match.fanout").summary();
+        assertThat(fanOut.count()).isEqualTo(1);
+        assertThat(fanOut.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void streamsEachMatchBeforeTheSlowerOnesResolve() {
+        List<String> ids = ids(3);
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(ids);
+        when(riotApiService.getMatchDetails(anyString(), anyString()))
+                .thenAnswer(inv -> match(inv.getArgument(0), CHAMPION_ID));
+        when(riotApiService.getMatchDetails(eq(ids.get(2)), anyString())).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return match(ids.get(2), CHAMPION_ID);
+        });
+
+        List<String> streamed = new ArrayList<>();
+        List<Long> streamedAt = new ArrayList<>();
+        long start = System.nanoTime();
+
+        MatchHistoryResponse response = matchService.streamChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10,
+                summary -> {
+                    streamed.add(summary.getMatchId());
+                    streamedAt.add(System.nanoTime() - start);
+                });
+
+        assertThat(streamed).containsExactlyElementsOf(ids);
+        assertThat(response.getRecentMatches()).extracting(MatchHistoryResponse.MatchSummary::getMatchId)
+                .containsExactlyElementsOf(streamed);
+        // The first match went out without waiting for the slow third one
+        assertThat(streamedAt.get(0)).isLessThan(Duration.ofMillis(150).toNanos());
+        assertThat(streamedAt.get(2)).isGreaterThanOrEqualTo(Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void careerStatsComeFromStoredTotals() {
+        when(riotApiService.getMatchIdsByPuuid(eq(PUUID), anyString(), anyInt())).thenReturn(List.of());
+        when(matchStoreService.findChampionStats(PUUID, CHAMPION_ID)).thenReturn(Optional.of(
+                new ChampionMatchStats(PUUID, CHAMPION_ID, "Yasuo", 4, 3, 20L, 8L, 12L, 800L, 48_000L, 7_200L, 16.0, 0L)));
+
+        MatchHistoryResponse.CareerStats career =
+                matchService.getChampionMatchHistory(PUUID, "NA1", CHAMPION_ID, 10).getCareerStats();
+
+        assertThat(career.getTotalGames()).isEqualTo(4);
+        assertThat(career.getWinRate()).isEqualTo(75.0);
+        assertThat(career.getAverageKDA()).isEqualTo(4.0);
+        assertThat(career.getAverageKills()).isEqualTo(5.0);
+        assertThat(career.getAverageCreepScore()).isEqualTo(200.0);
+        assertThat(career.getAverageGameDuration()).isEqualTo(1800.0);
+    }
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "NA1_" + (5000 - i)).toList();
+    }
+
+    private static MatchDto match(String matchId, int championId) {
+        MatchDto.Participant participant = new MatchDto.Participant();
+        participant.setPuuid(PUUID);
+        participant.setChampionId(championId);
+        participant.setChampionName("Yasuo");
+        participant.setKills(5);
+        participant.setDeaths(2);
+        participant.setAssists(7);
+        participant.setWin(true);
+
+        MatchDto.Info info = new MatchDto.Info();
+        info.setGameCreation(1_700_000_000_000L);
+        info.setGameDuration(1800);
+        info.setQueueId(420);
+        info.setParticipants(List.of(participant));
+
+        MatchDto.Metadata metadata = new MatchDto.Metadata();
+        metadata.setMatchId(matchId);
+
+        MatchDto match = new MatchDto();
+        match.setMetadata(metadata);
+        match.setInfo(info);
+        return match;
+    }
+}
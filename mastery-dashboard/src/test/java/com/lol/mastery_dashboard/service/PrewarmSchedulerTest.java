@@ -0,0 +1,152 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.PrewarmProperties;
+import com.lol.mastery_dashboard.config.RiotApiProperties;
+import com.lol.mastery_dashboard.config.SummonerRefreshProperties;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.entity.Summoner;
+import com.lol.mastery_dashboard.repository.SummonerRepository;
+import com.lol.mastery_dashboard.service.LookupTracker.TrackedSummoner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrewarmSchedulerTest {
+
+    private final PrewarmProperties prewarmProperties = new PrewarmProperties();
+    private final LookupTracker lookupTracker = new LookupTracker(prewarmProperties);
+    private final SummonerRepository summonerRepository = mock(SummonerRepository.class);
+    private final SummonerService summonerService = mock(SummonerService.class);
+    private final MatchService matchService = mock(MatchService.class);
+    private final RiotRateLimiter riotRateLimiter = mock(RiotRateLimiter.class);
+    private final RiotApiProperties riotApiProperties = new RiotApiProperties();
+    private final PrewarmScheduler scheduler = new PrewarmScheduler(prewarmProperties, new SummonerRefreshProperties(),
+            lookupTracker, summonerRepository, summonerService, matchService, riotRateLimiter, riotApiProperties);
+
+    @BeforeEach
+    void setUp() {
+        riotApiProperties.setAccountUrl("https://americas.api.riotgames.com");
+        prewarmProperties.setIngestMatches(false);
+        when(summonerRepository.findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc(anyString(), anyString()))
+                .thenReturn(Optional.empty());
+        when(riotRateLimiter.hasHeadroom(anyString(), anyDouble())).thenReturn(true);
+        when(summonerService.refreshSummoner(anyString(), anyString(), anyString()))
+                .thenReturn(SummonerResponse.builder().puuid("puuid").build());
+    }
+
+    @Test
+    void refreshesPopularSummonersRegionByRegion() {
+        lookup("A", "NA1", 5);
+        lookup("B", "NA1", 4);
+        lookup("C", "NA1", 3);
+        lookup("D", "EUW1", 2);
+
+        scheduler.prewarm();
+
+        InOrder order = inOrder(summonerService);
+        order.verify(summonerService).refreshSummoner("A", "tag", "NA1");
+        order.verify(summonerService).refreshSummoner("D", "tag", "EUW1");
+        order.verify(summonerService).refreshSummoner("B", "tag", "NA1");
+        order.verify(summonerService).refreshSummoner("C", "tag", "NA1");
+    }
+
+    @Test
+    void skipsWarmSummonersAndRegionsOutOfBudget() {
+        lookup("Warm", "NA1", 5);
+        lookup("Cold", "NA1", 4);
+        lookup("Busy", "KR", 3);
+        Summoner warm = new Summoner();
+        warm.setLastUpdated(LocalDateTime.now());
+        when(summonerRepository.findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc("warm#tag", "NA1")).thenReturn(Optional.of(warm));
+        when(riotRateLimiter.hasHeadroom(eq("kr"), anyDouble())).thenReturn(false);
+
+        scheduler.prewarm();
+
+        verify(summonerService).refreshSummoner("Cold", "tag", "NA1");
+        verify(summonerService, never()).refreshSummoner(eq("Warm"), anyString(), anyString());
+        verify(summonerService, never()).refreshSummoner(eq("Busy"), anyString(), anyString());
+        verify(matchService, never()).ingestRecentMatches(anyString(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    void stopsWhenAccountV1IsOutOfBudget() {
+        lookup("Europe", "EUW1", 2);
+        when(riotRateLimiter.hasHeadroom(eq("americas"), anyDouble())).thenReturn(false);
+
+        scheduler.prewarm();
+
+        verify(summonerService, never()).refreshSummoner(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void backsOffFromRiotIdsThatDoNotExist() {
+        lookup("Renamed", "NA1", 5);
+        lookup("Real", "NA1", 2);
+        when(summonerService.refreshSummoner("Renamed", "tag", "NA1"))
+                .thenThrow(new RuntimeException("Summoner not found: Renamed#tag"));
+
+        scheduler.prewarm();
+        lookup("Renamed", "NA1", 5);
+        scheduler.prewarm();
+
+        verify(summonerService, times(1)).refreshSummoner("Renamed", "tag", "NA1");
+        verify(summonerService, times(2)).refreshSummoner("Real", "tag", "NA1");
+    }
+
+    @Test
+    void popularityOutlivesPrewarmRunsUntilItDecays() {
+        lookup("Once", "NA1", 1);
+
+        scheduler.prewarm();
+        scheduler.prewarm();
+        scheduler.decayPopularity();
+        scheduler.prewarm();
+
+        verify(summonerService, times(2)).refreshSummoner("Once", "tag", "NA1");
+    }
+
+    @Test
+    void lookupsInUnknownRegionsAreNotPrewarmed() {
+        lookup("Junk", "NOPE1", 5);
+
+        scheduler.prewarm();
+
+        verify(summonerService, never()).refreshSummoner(anyString(), anyString(), anyString());
+        verify(riotRateLimiter, never()).hasHeadroom(eq("nope1"), anyDouble());
+    }
+
+    @Test
+    void interleavesRegionsKeepingTheirOrder() {
+        List<TrackedSummoner> interleaved = PrewarmScheduler.interleaveByRegion(List.of(
+                summoner("a", "NA1"), summoner("b", "NA1"), summoner("c", "KR"), summoner("d", "EUW1"), summoner("e", "KR")));
+
+        assertThat(interleaved).extracting(TrackedSummoner::gameName).containsExactly("a", "c", "d", "b", "e");
+    }
+
+    private void lookup(String gameName, String region, int times) {
+        for (int i = 0; i < times; i++) {
+            lookupTracker.record(gameName, "tag", region);
+        }
+    }
+
+    private static TrackedSummoner summoner(String gameName, String region) {
+        return new TrackedSummoner(gameName, "tag", region);
+    }
+}
@@ -0,0 +1,152 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.ReplicaLagMonitor;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.dto.riot.AccountDto;
+import com.lol.mastery_dashboard.dto.riot.SummonerDto;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/*
+Lookups against two Postgres instances standing in for a primary and its replica. Nothing replicates between
+them, so each test seeds the copy it expects and the profile icon tells which database answered.
+ */
+
+@SpringBootTest
+class ReplicaRoutingTest {
+
+    private static final EmbeddedPostgres PRIMARY = startPostgres();
+    private static final EmbeddedPostgres REPLICA = startPostgres();
+
+    private final JdbcTemplate primary = new JdbcTemplate(PRIMARY.getPostgresDatabase());
+    private final JdbcTemplate replica = new JdbcTemplate(REPLICA.getPostgresDatabase());
+
+    @MockitoBean
+    private RiotApiService riotApiService;
+
+    @MockitoSpyBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private SummonerService summonerService;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("riot.replica.enabled", () -> "true");
+        registry.add("riot.replica.url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+        registry.add("riot.api.key", () -> "test-key");
+        registry.add("riot.prewarm.enabled", () -> "false");
+        registry.add("riot.match.incremental-sync", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        PRIMARY.close();
+        REPLICA.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("DELETE FROM champion_mastery");
+            database.update("DELETE FROM summoners");
+        }
+        // Not left to the scheduler, the first check may not have run yet
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void storedSummonerIsReadFromTheReplica() {
+        store(primary, "Reader", 1, LocalDateTime.now());
+        store(replica, "Reader", 2, LocalDateTime.now());
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Reader", "NA1", "NA1");
+
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+        assertThat(response.getProfileIconId()).isEqualTo(2);
+        assertThat(response.getChampionMasteries()).hasSize(1);
+        verifyNoInteractions(riotApiService);
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        store(primary, "Reader", 1, LocalDateTime.now());
+        store(replica, "Reader", 2, LocalDateTime.now());
+        doReturn(false).when(replicaLagMonitor).isReplicaUsable();
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Reader", "NA1", "NA1");
+
+        assertThat(response.getProfileIconId()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshIsWrittenToThePrimaryAndReadBackFromIt() {
+        // The replica hasn't seen the refresh yet and still has the copy from two hours ago
+        store(primary, "Writer", 2, LocalDateTime.now().minusHours(2));
+        store(replica, "Writer", 2, LocalDateTime.now().minusHours(2));
+        AccountDto account = new AccountDto();
+        account.setPuuid("writer-puuid");
+        account.setGameName("Writer");
+        account.setTagLine("NA1");
+        SummonerDto summoner = new SummonerDto();
+        summoner.setProfileIconId(3);
+        summoner.setSummonerLevel(31L);
+        when(riotApiService.getAccountByRiotId("Writer", "NA1")).thenReturn(account);
+        when(riotApiService.getSummonerByPuuid("writer-puuid", "NA1")).thenReturn(summoner);
+        when(riotApiService.getChampionMasteries("writer-puuid", "NA1")).thenReturn(List.of());
+
+        summonerService.refreshSummoner("Writer", "NA1", "NA1");
+        SummonerResponse response = summonerService.findOrCreateSummoner("writer", "na1", "NA1");
+
+        assertThat(response.getProfileIconId()).isEqualTo(3);
+        assertThat(response.getStale()).isFalse();
+        assertThat(primary.queryForObject("SELECT profile_icon_id FROM summoners", Integer.class)).isEqualTo(3);
+        assertThat(replica.queryForObject("SELECT profile_icon_id FROM summoners", Integer.class)).isEqualTo(2);
+    }
+
+    private void store(JdbcTemplate database, String gameName, int profileIconId, LocalDateTime lastUpdated) {
+        String puuid = gameName.toLowerCase() + "-puuid";
+        database.update("""
+                INSERT INTO summoners (puuid, game_name, tag_line, region, riot_id_key, profile_icon_id, summoner_level, last_updated)
+                VALUES (?, ?, 'NA1', 'NA1', ?, ?, 30, ?)
+                """, puuid, gameName, gameName.toLowerCase() + "#na1", profileIconId, lastUpdated);
+        database.update("""
+                INSERT INTO champion_mastery (puuid, champion_id, champion_level, champion_points, chest_granted)
+                VALUES (?, 1, 7, 100000, false)
+                """, puuid);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(postgres.getPostgresDatabase());
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.lol.mastery_dashboard.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RiotApiMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RiotApiMetrics metrics = new RiotApiMetrics(meterRegistry);
+
+    @Test
+    void timesEachAttemptByMethodRegionAndStatus() {
+        ExchangeFilterFunction filter = metrics.filter("NA1");
+        ExchangeFunction riot = respondWith(HttpStatus.TOO_MANY_REQUESTS, HttpStatus.OK);
+
+        filter.filter(request("summoner-v4.getByPuuid"), riot).block();
+        filter.filter(request("summoner-v4.getByPuuid"), riot).block();
+
+        assertThat(timerCount("summoner-v4.getByPuuid", "na1", "429")).isEqualTo(1);
+        assertThat(timerCount("summoner-v4.getByPuuid", "na1", "200")).isEqualTo(1);
+    }
+
+    @Test
+    void failedAttemptsAreTimedAsIoErrors() {
+        ExchangeFunction riot = request -> Mono.error(new IOException("Connection reset"));
+
+        assertThatThrownBy(() -> metrics.filter("americas").filter(request("match-v5.getMatch"), riot).block())
+                .hasCauseInstanceOf(IOException.class);
+
+        assertThat(timerCount("match-v5.getMatch", "americas", "IO_ERROR")).isEqualTo(1);
+    }
+
+    @Test
+    void unknownRegionsShareOneTagValue() {
+        metrics.filter("not-a-region").filter(request("summoner-v4.getByPuuid"), respondWith(HttpStatus.OK)).block();
+
+        assertThat(timerCount("summoner-v4.getByPuuid", "other", "200")).isEqualTo(1);
+    }
+
+    @Test
+    void countsCallsAgainstTheRequestBeingServed() {
+        ObservationRegistry observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(metrics);
+
+        ServerRequestObservationContext serverContext = new ServerRequestObservationContext(
+                new MockHttpServletRequest("GET", "/api/summoners/Player/NA1"), new MockHttpServletResponse());
+        serverContext.setPathPattern("/api/summoners/{gameName}/{tagLine}");
+        Observation server = Observation.start("http.server.requests", () -> serverContext, observations);
+
+        // Riot's client observation is a child of the request, as WebClient sets it up
+        Observation client = Observation.start("http.client.requests", observations).parentObservation(server);
+        ExchangeFilterFunction filter = metrics.filter("NA1");
+        for (String method : List.of("account-v1.getByRiotId", "summoner-v4.getByPuuid", "champion-mastery-v4.getAll")) {
+            filter.filter(request(method), respondWith(HttpStatus.OK))
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, client))
+                    .block();
+        }
+        client.stop();
+        server.stop();
+
+        DistributionSummary calls = meterRegistry.get("riot.api.calls.per.request")
+                .tag("uri", "/api/summoners/{gameName}/{tagLine}")
+                .summary();
+        assertThat(calls.count()).isEqualTo(1);
+        assertThat(calls.totalAmount()).isEqualTo(3);
+    }
+
+    private long timerCount(String method, String region, String status) {
+        return meterRegistry.get("riot.api.requests")
+                .tag("method", method)
+                .tag("region", region)
+                .tag("status", status)
+                .timer()
+                .count();
+    }
+
+    private static ClientRequest request(String method) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("https://na1.api.riotgames.com/lol"))
+                .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, method)
+                .build();
+    }
+
+    private static ExchangeFunction respondWith(HttpStatus... statuses) {
+        Deque<HttpStatus> remaining = new ArrayDeque<>(List.of(statuses));
+        return request -> Mono.fromSupplier(() -> ClientResponse.create(remaining.poll()).build());
+    }
+}
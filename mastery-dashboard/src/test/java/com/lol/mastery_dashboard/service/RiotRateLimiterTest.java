@@ -0,0 +1,169 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.RiotApiProperties;
+import com.lol.mastery_dashboard.support.RiotApiStub;
+import com.lol.mastery_dashboard.support.RiotApiStub.StubResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiotRateLimiterTest {
+
+    private final RiotApiProperties properties = new RiotApiProperties();
+    private RiotApiStub stub;
+    private RiotRateLimiter rateLimiter;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.getRateLimit().setAppLimits("100:1");
+        properties.getRateLimit().setDefaultRetryAfter(Duration.ofSeconds(1));
+        stub = new RiotApiStub();
+        rateLimiter = new RiotRateLimiter(properties);
+        webClient = WebClient.builder()
+                .baseUrl(stub.baseUrl())
+                .filter(rateLimiter.filter("NA1"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void queuesCallersOnceTheAppWindowIsFull() {
+        properties.getRateLimit().setAppLimits("3:1");
+        rateLimiter = new RiotRateLimiter(properties);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.acquire("na1", "summoner-v4.getByPuuid");
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void reportsHeadroomOnlyBelowTheGivenShare() {
+        properties.getRateLimit().setAppLimits("10:1");
+        rateLimiter = new RiotRateLimiter(properties);
+
+        assertThat(rateLimiter.hasHeadroom("NA1", 0.2)).isTrue();
+        rateLimiter.acquire("na1", "summoner-v4.getByPuuid");
+        assertThat(rateLimiter.hasHeadroom("NA1", 0.2)).isTrue();
+        rateLimiter.acquire("na1", "summoner-v4.getByPuuid");
+
+        assertThat(rateLimiter.hasHeadroom("NA1", 0.2)).isFalse();
+        assertThat(rateLimiter.hasHeadroom("NA1", 0.5)).isTrue();
+        assertThat(rateLimiter.hasHeadroom("EUW1", 0.2)).isTrue();
+    }
+
+    @Test
+    void headroomChecksDoNotCreateBuckets() {
+        rateLimiter.hasHeadroom("made-up-region", 0.2);
+
+        assertThat(rateLimiter.routingValues()).doesNotContain("made-up-region");
+    }
+
+    @Test
+    void honoursRetryAfterAndRetriesOn429() {
+        stub.route("/lol/summoner")
+                .thenRespond(StubResponse.status(429)
+                        .withHeader("Retry-After", "1")
+                        .withHeader("X-Rate-Limit-Type", "application"))
+                .respond(StubResponse.json("{\"puuid\":\"abc\"}"));
+
+        String body = get("/lol/summoner/v4/summoners/by-puuid/abc", "summoner-v4.getByPuuid");
+
+        assertThat(body).contains("abc");
+        List<RiotApiStub.RecordedRequest> requests = stub.requests();
+        assertThat(requests).hasSize(2);
+        assertThat(RiotApiStub.gapsMillis(requests).getFirst()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void learnsMethodLimitFromResponseHeaders() {
+        stub.route("/lol/match")
+                .respond(StubResponse.json("[]")
+                        .withHeader("X-App-Rate-Limit", "100:1")
+                        .withHeader("X-Method-Rate-Limit", "1:1"));
+
+        for (int i = 0; i < 3; i++) {
+            get("/lol/match/v5/matches/by-puuid/abc/ids", "match-v5.getMatchIdsByPuuid");
+        }
+
+        assertThat(RiotApiStub.gapsMillis(stub.requests()))
+                .allSatisfy(gap -> assertThat(gap).isGreaterThanOrEqualTo(900));
+    }
+
+    @Test
+    void methodLimitsDoNotThrottleOtherMethods() {
+        rateLimiter.onResponse("na1", "match-v5.getMatch",
+                headers("X-Method-Rate-Limit", "1:10", "X-Method-Rate-Limit-Count", "1:10"), false);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire("na1", "summoner-v4.getByPuuid");
+        rateLimiter.acquire("euw1", "match-v5.getMatch");
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(500);
+    }
+
+    @Test
+    void servesConcurrentCallersWithoutFailingThem() throws Exception {
+        properties.getRateLimit().setAppLimits("5:1");
+        rateLimiter = new RiotRateLimiter(properties);
+        webClient = WebClient.builder().baseUrl(stub.baseUrl()).filter(rateLimiter.filter("europe")).build();
+        stub.route("/lol/match").respond(StubResponse.json("{}"));
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(10)) {
+            List<Future<String>> results = IntStream.range(0, 10)
+                    .mapToObj(i -> callers.submit(() -> get("/lol/match/v5/matches/EUW1_" + i, "match-v5.getMatch")))
+                    .toList();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("{}");
+            }
+        }
+
+        List<RiotApiStub.RecordedRequest> requests = stub.requests();
+        assertThat(requests).hasSize(10);
+        long spreadMillis = (requests.getLast().receivedAtNanos() - requests.getFirst().receivedAtNanos()) / 1_000_000;
+        assertThat(spreadMillis).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void parsesRiotLimitHeaders() {
+        assertThat(RiotRateLimiter.parseWindows("20:1,100:120")).hasSize(2);
+        assertThat(RiotRateLimiter.parseWindows("garbage,5:10")).hasSize(1);
+        assertThat(RiotRateLimiter.parseWindows(null)).isEmpty();
+    }
+
+    private String get(String path, String method) {
+        return webClient.get()
+                .uri(path)
+                .attribute(RiotRateLimiter.METHOD_ATTRIBUTE, method)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static HttpHeaders headers(String... pairs) {
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < pairs.length; i += 2) {
+            headers.add(pairs[i], pairs[i + 1]);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,123 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.dto.response.ChampionMasteryResponse;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/*
+Statements issued by a summoner lookup that is served from stored data, counted by Hibernate
+against a real Postgres so lazy loads or extra queries would show up.
+ */
+
+@SpringBootTest
+class SummonerReadQueryTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @MockitoBean
+    private RiotApiService riotApiService;
+
+    @Autowired
+    private SummonerService summonerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("riot.api.key", () -> "test-key");
+        // Nothing in the background may touch the database while statements are counted
+        registry.add("riot.prewarm.enabled", () -> "false");
+        registry.add("riot.match.incremental-sync", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM champion_mastery");
+        jdbcTemplate.update("DELETE FROM summoners");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void freshSummonerIsReadInOneStatement() {
+        store("fresh-puuid", "Fresh", LocalDateTime.now(), 170);
+        statistics.clear();
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("FRESH", "na1", "NA1");
+
+        assertThat(response.getChampionMasteries()).hasSize(170);
+        assertThat(response.getChampionMasteries()).extracting(ChampionMasteryResponse::getChampionPoints)
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        verifyNoInteractions(riotApiService);
+    }
+
+    @Test
+    void summonerWithoutMasteriesIsStillFound() {
+        store("new-puuid", "Newcomer", LocalDateTime.now(), 0);
+        statistics.clear();
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Newcomer", "NA1", "NA1");
+
+        assertThat(response.getPuuid()).isEqualTo("new-puuid");
+        assertThat(response.getChampionMasteries()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        verifyNoInteractions(riotApiService);
+    }
+
+    private void store(String puuid, String gameName, LocalDateTime lastUpdated, int champions) {
+        jdbcTemplate.update("""
+                INSERT INTO summoners (puuid, game_name, tag_line, region, riot_id_key, profile_icon_id, summoner_level, last_updated)
+                VALUES (?, ?, 'NA1', 'NA1', ?, 1, 30, ?)
+                """, puuid, gameName, gameName.toLowerCase() + "#na1", lastUpdated);
+        for (int championId = 1; championId <= champions; championId++) {
+            jdbcTemplate.update("""
+                    INSERT INTO champion_mastery (puuid, champion_id, champion_level, champion_points, chest_granted)
+                    VALUES (?, ?, ?, ?, ?)
+                    """, puuid, championId, 1 + championId % 10, championId * 137L % 100_000, championId % 3 == 0);
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.lol.mastery_dashboard.service;
+
+import com.lol.mastery_dashboard.config.PrewarmProperties;
+import com.lol.mastery_dashboard.config.ReplicaProperties;
+import com.lol.mastery_dashboard.config.SummonerRefreshProperties;
+import com.lol.mastery_dashboard.dto.request.MasteryQuery;
+import com.lol.mastery_dashboard.dto.response.BatchSummonerResponse;
+import com.lol.mastery_dashboard.dto.response.ChampionMasteryResponse;
+import com.lol.mastery_dashboard.dto.response.MasteryChangeResponse;
+import com.lol.mastery_dashboard.dto.response.SummonerResponse;
+import com.lol.mastery_dashboard.dto.riot.AccountDto;
+import com.lol.mastery_dashboard.dto.riot.ChampionMasteryDto;
+import com.lol.mastery_dashboard.dto.riot.SummonerDto;
+import com.lol.mastery_dashboard.entity.ChampionMastery;
+import com.lol.mastery_dashboard.entity.Summoner;
+import com.lol.mastery_dashboard.repository.ChampionMasteryRepository;
+import com.lol.mastery_dashboard.repository.SummonerMasteryRow;
+import com.lol.mastery_dashboard.repository.SummonerRepository;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummonerServiceTest {
+
+    private static final String PUUID = "player-puuid";
+
+    private final RiotApiService riotApiService = mock(RiotApiService.class);
+    private final SummonerRepository summonerRepository = mock(SummonerRepository.class);
+    private final ChampionMasteryRepository championMasteryRepository = mock(ChampionMasteryRepository.class);
+    private final SummonerRefreshProperties refreshProperties = new SummonerRefreshProperties();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    private final SummonerService summonerService =
+            new SummonerService(riotApiService, summonerRepository, championMasteryRepository,
+                    new TransactionTemplate(mock(PlatformTransactionManager.class)), refreshProperties, refreshExecutor,
+                    new LookupTracker(new PrewarmProperties()), new RiotIdIndex(new ConcurrentMapCacheManager()),
+                    ObservationRegistry.NOOP,
+                    new ReplicaReads(new ReplicaProperties(), mock(PlatformTransactionManager.class)));
+
+    private Summoner stored;
+
+    @BeforeEach
+    void setUp() {
+        stored = new Summoner();
+        stored.setPuuid(PUUID);
+        stored.setGameName("Player");
+        stored.setTagLine("NA1");
+        stored.setRegion("NA1");
+        // Past the maximum staleness, so lookups refresh inline unless a test says otherwise
+        stored.setLastUpdated(LocalDateTime.now().minusDays(2));
+
+        AccountDto account = new AccountDto();
+        account.setPuuid(PUUID);
+        account.setGameName("Player");
+        account.setTagLine("NA1");
+        when(riotApiService.getAccountByRiotId("Player", "NA1")).thenReturn(account);
+        when(riotApiService.getSummonerByPuuid(eq(PUUID), anyString())).thenReturn(new SummonerDto());
+        when(summonerRepository.findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc("player#na1", "NA1")).thenReturn(Optional.of(stored));
+        when(summonerRepository.findById(PUUID)).thenReturn(Optional.of(stored));
+        when(summonerRepository.findLatestWithMasteries("player#na1", "NA1")).thenAnswer(inv -> rows());
+        when(summonerRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Test
+    void staleDataIsServedWhileARefreshRunsInTheBackground() {
+        stored.setLastUpdated(LocalDateTime.now().minusHours(1));
+        when(summonerRepository.findLatestWithMasteries("player#na1", "NA1")).thenAnswer(inv -> rows(stored(1, 5, 1000L)));
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of(stored(1, 5, 1000L)));
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return List.of(dto(1, 5, 1200L));
+        });
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1");
+
+        assertThat(response.getStale()).isTrue();
+        assertThat(response.getChampionMasteries()).extracting(ChampionMasteryResponse::getChampionPoints).containsExactly(1000L);
+        verify(championMasteryRepository, timeout(2_000)).upsertAll(eq(PUUID), anyList());
+    }
+
+    @Test
+    void refreshesOfTheSameSummonerShareOneRiotFetch() throws Exception {
+        stored.setLastUpdated(LocalDateTime.now().minusHours(1));
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of());
+        AtomicInteger masteryFetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenAnswer(inv -> {
+            masteryFetches.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(dto(1, 5, 1200L));
+        });
+
+        // Stale, so the lookup starts a background refresh, which pre-warming then runs into
+        summonerService.findOrCreateSummoner("Player", "NA1", "NA1");
+        while (masteryFetches.get() == 0) {
+            Thread.sleep(5);
+        }
+        CompletableFuture<SummonerResponse> prewarm =
+                CompletableFuture.supplyAsync(() -> summonerService.refreshSummoner("Player", "NA1", "NA1"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(prewarm.get(5, TimeUnit.SECONDS).getPuuid()).isEqualTo(PUUID);
+        assertThat(masteryFetches).hasValue(1);
+        verify(championMasteryRepository, timeout(2_000)).upsertAll(eq(PUUID), anyList());
+        verify(championMasteryRepository, times(1)).upsertAll(eq(PUUID), anyList());
+    }
+
+    @Test
+    void unchangedMasteriesAreNotWritten() {
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of(stored(1, 5, 1000L), stored(2, 7, 50_000L)));
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenReturn(List.of(dto(1, 5, 1000L), dto(2, 7, 50_000L)));
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1");
+
+        assertThat(response.getMasteryChanges()).isEmpty();
+        assertThat(response.getChampionMasteries()).hasSize(2);
+        verify(championMasteryRepository, never()).upsertAll(anyString(), anyList());
+        verify(championMasteryRepository, never()).deleteMissing(anyString(), anyCollection());
+    }
+
+    @Test
+    void onlyChangedMasteriesAreWrittenAndReported() {
+        when(championMasteryRepository.findBySummonerPuuid(PUUID))
+                .thenReturn(List.of(stored(1, 5, 1000L), stored(2, 6, 40_000L), stored(3, 4, 900L), stored(4, 2, 300L)));
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString()))
+                .thenReturn(List.of(dto(1, 5, 1000L), dto(2, 7, 52_000L), dto(3, 4, 1500L), dto(5, 1, 200L)));
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ChampionMastery>> written = ArgumentCaptor.forClass(List.class);
+        verify(championMasteryRepository).upsertAll(eq(PUUID), written.capture());
+        assertThat(written.getValue()).extracting(ChampionMastery::getChampionId).containsExactly(2, 3, 5);
+        verify(championMasteryRepository).deleteMissing(eq(PUUID), anyCollection());
+
+        assertThat(response.getMasteryChanges())
+                .extracting(MasteryChangeResponse::getChampionId, MasteryChangeResponse::getChangeType, MasteryChangeResponse::getPointsDelta)
+                .containsExactly(
+                        tuple(2, MasteryChangeResponse.ChangeType.LEVEL_UP, 12_000L),
+                        tuple(3, MasteryChangeResponse.ChangeType.POINTS, 600L),
+                        tuple(5, MasteryChangeResponse.ChangeType.NEW, 200L),
+                        tuple(4, MasteryChangeResponse.ChangeType.REMOVED, -300L));
+    }
+
+    @Test
+    void riotIdsAreMatchedCaseInsensitivelyAndResolvedWithoutAccountV1() {
+        stored.setLastUpdated(LocalDateTime.now().minusHours(2));
+        when(summonerRepository.findFirstByRiotIdKeyOrderByLastUpdatedDesc("player#na1")).thenReturn(Optional.of(stored));
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of());
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenReturn(List.of());
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("PLAYER", "na1", "NA1");
+
+        assertThat(response.getPuuid()).isEqualTo(PUUID);
+        assertThat(summonerService.getPuuidOnly("player", "Na1", "NA1")).isEqualTo(PUUID);
+        verify(riotApiService, never()).getAccountByRiotId(anyString(), anyString());
+    }
+
+    @Test
+    void riotIdsStoredLongerThanMaxStalenessAreResolvedAgain() {
+        // Stored under the old owner of the Riot ID, two days ago
+        when(summonerRepository.findFirstByRiotIdKeyOrderByLastUpdatedDesc("player#na1")).thenReturn(Optional.of(stored));
+        AccountDto newOwner = new AccountDto();
+        newOwner.setPuuid("new-owner-puuid");
+        newOwner.setGameName("Player");
+        newOwner.setTagLine("NA1");
+        when(riotApiService.getAccountByRiotId("player", "na1")).thenReturn(newOwner);
+
+        assertThat(summonerService.getPuuidOnly("player", "na1", "NA1")).isEqualTo("new-owner-puuid");
+    }
+
+    @Test
+    void forcedRefreshesAlwaysResolveTheRiotIdAgain() {
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of());
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenReturn(List.of());
+
+        summonerService.refreshSummoner("Player", "NA1", "NA1");
+        summonerService.refreshSummoner("Player", "NA1", "NA1");
+
+        verify(riotApiService, times(2)).getAccountByRiotId("Player", "NA1");
+    }
+
+    @Test
+    void batchLookupReadsStoredSummonersTogetherAndReportsErrorsPerItem() {
+        stored.setLastUpdated(LocalDateTime.now());
+        stored.setRiotIdKey("player#na1");
+        when(summonerRepository.findByRiotIdKeyInAndRegion(anyCollection(), eq("NA1"))).thenReturn(List.of(stored));
+        when(championMasteryRepository.findBySummonerPuuidIn(List.of(PUUID))).thenReturn(List.of(stored(1, 5, 1000L)));
+        when(riotApiService.getAccountByRiotId("Nobody", "NA1")).thenThrow(new RuntimeException("Summoner not found: Nobody#NA1"));
+
+        BatchSummonerResponse response = summonerService.findOrCreateSummoners(
+                List.of("player#na1", "no-tag", "Nobody#NA1"), "NA1");
+
+        assertThat(response.getResults()).extracting(BatchSummonerResponse.Item::getRiotId)
+                .containsExactly("player#na1", "no-tag", "Nobody#NA1");
+        assertThat(response.getResults().get(0).getSummoner().getChampionMasteries()).hasSize(1);
+        assertThat(response.getResults().get(1).getError()).startsWith("Invalid Riot ID");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Summoner not found: Nobody#NA1");
+        verify(championMasteryRepository, never()).findBySummonerPuuid(anyString());
+    }
+
+    @Test
+    void masteryQueriesOnStoredDataAreAnsweredByTheDatabase() {
+        stored.setLastUpdated(LocalDateTime.now());
+        Pageable secondPage = PageRequest.of(1, 2, Sort.by(
+                Sort.Order.desc("championLevel"), Sort.Order.desc("championPoints"), Sort.Order.desc("championId")));
+        when(championMasteryRepository.findPage(PUUID, null, true, secondPage))
+                .thenReturn(new PageImpl<>(List.of(stored(3, 6, 30_000L), stored(9, 5, 12_000L)), secondPage, 7));
+        when(championMasteryRepository.sumTotals(PUUID)).thenReturn(totals(42, 9));
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1",
+                MasteryQuery.builder().sort("level-desc").chestAvailable(true).page(1).limit(2).build());
+
+        assertThat(response.getChampionMasteries()).extracting(ChampionMasteryResponse::getChampionId).containsExactly(3, 9);
+        assertThat(response.getTotalMasteryScore()).isEqualTo(42);
+        assertThat(response.getChestsAvailable()).isEqualTo(9);
+        assertThat(response.getStale()).isFalse();
+        assertThat(response.getMasteryPage()).isEqualTo(new SummonerResponse.MasteryPage("level-desc", 1, 2, 7L, 4));
+        verify(championMasteryRepository, never()).findBySummonerPuuid(anyString());
+        verify(riotApiService, never()).getChampionMasteries(anyString(), anyString());
+    }
+
+    @Test
+    void masteryQueriesWithoutStoredDataLoadTheSummonerFirst() {
+        when(championMasteryRepository.findBySummonerPuuid(PUUID)).thenReturn(List.of());
+        when(riotApiService.getChampionMasteries(eq(PUUID), anyString())).thenReturn(List.of(dto(1, 5, 1000L), dto(2, 7, 50_000L)));
+        when(championMasteryRepository.findPage(eq(PUUID), eq(7), eq(null), any()))
+                .thenAnswer(inv -> new PageImpl<>(List.of(stored(2, 7, 50_000L)), inv.getArgument(3), 1));
+        when(championMasteryRepository.sumTotals(PUUID)).thenReturn(totals(12, 2));
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1",
+                MasteryQuery.builder().level(7).build());
+
+        assertThat(response.getChampionMasteries()).extracting(ChampionMasteryResponse::getChampionId).containsExactly(2);
+        assertThat(response.getMasteryPage().getSort()).isEqualTo("points-desc");
+        assertThat(response.getMasteryPage().getLimit()).isNull();
+        verify(championMasteryRepository).upsertAll(eq(PUUID), anyList());
+    }
+
+    private static ChampionMasteryRepository.MasteryTotals totals(long totalMasteryScore, long chestsAvailable) {
+        return new ChampionMasteryRepository.MasteryTotals() {
+            @Override
+            public long getTotalMasteryScore() {
+                return totalMasteryScore;
+            }
+
+            @Override
+            public long getChestsAvailable() {
+                return chestsAvailable;
+            }
+        };
+    }
+
+    @Test
+    void freshStoredSummonerIsServedFromOneQuery() {
+        stored.setLastUpdated(LocalDateTime.now());
+        when(summonerRepository.findLatestWithMasteries("player#na1", "NA1"))
+                .thenAnswer(inv -> rows(stored(2, 7, 50_000L), stored(1, 5, 1000L)));
+
+        SummonerResponse response = summonerService.findOrCreateSummoner("Player", "NA1", "NA1");
+
+        assertThat(response.getStale()).isFalse();
+        assertThat(response.getChampionMasteries()).extracting(ChampionMasteryResponse::getChampionId).containsExactly(2, 1);
+        assertThat(response.getTotalMasteryScore()).isEqualTo(12);
+        verify(championMasteryRepository, never()).findBySummonerPuuid(anyString());
+        verify(summonerRepository, never()).findFirstByRiotIdKeyAndRegionOrderByLastUpdatedDesc(anyString(), anyString());
+    }
+
+    // What findLatestWithMasteries returns for the stored summoner, one row with no champion when it has none
+    private List<SummonerMasteryRow> rows(ChampionMastery... masteries) {
+        if (masteries.length == 0) {
+            return List.of(row(null));
+        }
+        return Arrays.stream(masteries).map(this::row).toList();
+    }
+
+    private SummonerMasteryRow row(ChampionMastery mastery) {
+        return new SummonerMasteryRow(stored.getPuuid(), stored.getGameName(), stored.getTagLine(), stored.getRegion(),
+                stored.getProfileIconId(), stored.getSummonerLevel(), stored.getLastUpdated(),
+                mastery == null ? null : mastery.getChampionId(),
+                mastery == null ? null : mastery.getChampionLevel(),
+                mastery == null ? null : mastery.getChampionPoints(),
+                null, null,
+                mastery == null ? null : mastery.getChestGranted(),
+                null, null);
+    }
+
+    private ChampionMastery stored(int championId, int level, long points) {
+        ChampionMastery mastery = new ChampionMastery();
+        mastery.setSummoner(stored);
+        mastery.setChampionId(championId);
+        mastery.setChampionLevel(level);
+        mastery.setChampionPoints(points);
+        mastery.setChestGranted(false);
+        return mastery;
+    }
+
+    private static ChampionMasteryDto dto(int championId, int level, long points) {
+        ChampionMasteryDto dto = new ChampionMasteryDto();
+        dto.setChampionId(championId);
+        dto.setChampionLevel(level);
+        dto.setChampionPoints(points);
+        dto.setChestGranted(false);
+        return dto;
+    }
+}
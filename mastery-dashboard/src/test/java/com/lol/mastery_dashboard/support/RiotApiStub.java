@@ -0,0 +1,216 @@
+package com.lol.mastery_dashboard.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+Tiny local stand-in for the Riot API.
+Responses are matched on path prefix; queued one-off responses are served before the default one.
+Latency, jitter and random 429s can be layered over every route for load tests.
+ */
+
+public class RiotApiStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final Queue<RecordedRequest> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double throttleRate;
+    private volatile Duration retryAfter = Duration.ofSeconds(1);
+
+    public RiotApiStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // Virtual threads, so delayed responses don't add platform threads to what tests measure
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Route route(String pathPrefix) {
+        Route route = new Route(pathPrefix);
+        routes.add(0, route);
+        return route;
+    }
+
+    // Added to every response, plus a uniformly random extra delay of up to `jitter`
+    public RiotApiStub withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    // Answers this share of requests with a method 429 instead of the routed response
+    public RiotApiStub withThrottling(double rate, Duration retryAfter) {
+        this.throttleRate = rate;
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    public long throttledCount() {
+        return throttled.get();
+    }
+
+    public List<RecordedRequest> requests() {
+        return List.copyOf(requests);
+    }
+
+    public long requestCount(String pathPrefix) {
+        return requests.stream().filter(r -> r.path().startsWith(pathPrefix)).count();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        RecordedRequest request = new RecordedRequest(path, exchange.getRequestURI().getRawQuery(), System.nanoTime());
+        requests.add(request);
+
+        StubResponse response;
+        if (throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            throttled.incrementAndGet();
+            response = StubResponse.status(429)
+                    .withHeader("Retry-After", String.valueOf(retryAfter.toSeconds()))
+                    .withHeader("X-Rate-Limit-Type", "method");
+        } else {
+            response = routes.stream()
+                    .filter(route -> path.startsWith(route.pathPrefix))
+                    .findFirst()
+                    .map(route -> route.next(request))
+                    .orElse(StubResponse.status(404));
+        }
+
+        Duration delay = response.delay().plus(latency);
+        if (!jitter.isZero()) {
+            delay = delay.plusNanos(ThreadLocalRandom.current().nextLong(jitter.toNanos() + 1));
+        }
+        if (!delay.isZero()) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static final class Route {
+        private final String pathPrefix;
+        private final Deque<StubResponse> queued = new ConcurrentLinkedDeque<>();
+        private volatile Function<RecordedRequest, StubResponse> fallback = request -> StubResponse.status(404);
+
+        private Route(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+        }
+
+        // Served once, in order, before the default response
+        public Route thenRespond(StubResponse response) {
+            queued.add(response);
+            return this;
+        }
+
+        public Route respond(StubResponse response) {
+            fallback = request -> response;
+            return this;
+        }
+
+        // Default response built from the request, e.g. echoing an ID from the path
+        public Route respondWith(Function<RecordedRequest, StubResponse> responder) {
+            fallback = responder;
+            return this;
+        }
+
+        private StubResponse next(RecordedRequest request) {
+            StubResponse response = queued.poll();
+            return response != null ? response : fallback.apply(request);
+        }
+    }
+
+    public record StubResponse(int status, String body, Map<String, String> headers, Duration delay) {
+
+        public static StubResponse json(String body) {
+            return new StubResponse(200, body, Map.of(), Duration.ZERO);
+        }
+
+        public static StubResponse status(int status) {
+            return new StubResponse(status, "", Map.of(), Duration.ZERO);
+        }
+
+        public StubResponse withHeader(String name, String value) {
+            Map<String, String> merged = new LinkedHashMap<>(headers);
+            merged.put(name, value);
+            return new StubResponse(status, body, merged, delay);
+        }
+
+        // Simulated upstream latency before the response is written
+        public StubResponse withDelay(Duration delay) {
+            return new StubResponse(status, body, headers, delay);
+        }
+    }
+
+    public record RecordedRequest(String path, String query, long receivedAtNanos) {
+
+        // Last path segment, usually the ID being looked up
+        public String lastSegment() {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        public String queryParam(String name, String defaultValue) {
+            if (query == null) {
+                return defaultValue;
+            }
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return pair.substring(eq + 1);
+                }
+            }
+            return defaultValue;
+        }
+    }
+
+    public static List<Long> gapsMillis(List<RecordedRequest> requests) {
+        List<Long> gaps = new ArrayList<>();
+        for (int i = 1; i < requests.size(); i++) {
+            gaps.add((requests.get(i).receivedAtNanos() - requests.get(i - 1).receivedAtNanos()) / 1_000_000);
+        }
+        return gaps;
+    }
+}
@@ -0,0 +1,77 @@
+package com.lol.mastery_dashboard.util;
+
+import com.lol.mastery_dashboard.dto.riot.MatchDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MatchDtoDecoderTest {
+
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Test
+    void readsTheSameFieldsAsFullDeserialization() throws IOException {
+        byte[] payload = fixture();
+        MatchDto expected = JSON_MAPPER.readValue(payload, MatchDto.class);
+
+        MatchDto decoded = MatchDtoDecoder.decode(payload);
+
+        assertThat(decoded.getMetadata().getMatchId()).isEqualTo("NA1_5123456789");
+        assertThat(decoded.getInfo()).isEqualTo(expected.getInfo());
+        assertThat(decoded.getInfo().getParticipants()).hasSize(10);
+        assertThat(decoded.getInfo().getParticipants().getFirst().getPuuid()).isEqualTo("player-puuid");
+    }
+
+    @Test
+    void tokensSplitAcrossChunksAreReassembled() throws IOException {
+        byte[] payload = fixture();
+
+        // 7 byte chunks cut through names, numbers and strings alike
+        MatchDto decoded = MatchDtoDecoder.decode(chunks(payload, 7)).block();
+
+        assertThat(decoded).isEqualTo(MatchDtoDecoder.decode(payload));
+    }
+
+    @Test
+    void truncatedPayloadFails() throws IOException {
+        byte[] payload = fixture();
+
+        assertThatThrownBy(() -> MatchDtoDecoder.decode(Arrays.copyOf(payload, payload.length / 2)))
+                .isInstanceOf(JacksonException.class);
+    }
+
+    @Test
+    void emptyBodyDecodesToNothing() {
+        assertThat(MatchDtoDecoder.decode(Flux.<DataBuffer>empty()).block()).isNull();
+    }
+
+    static byte[] fixture() throws IOException {
+        try (InputStream in = MatchDtoDecoderTest.class.getResourceAsStream("/riot/match-v5.json")) {
+            return in.readAllBytes();
+        }
+    }
+
+    static Flux<DataBuffer> chunks(byte[] payload, int size) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += size) {
+            byte[] chunk = Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + size));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}